@@ -0,0 +1,52 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.bench;
+
+import closestpair.PointSet;
+import closestpair.SpacePartition2D;
+import closestpair.io.DatasetGenerator;
+import closestpair.io.Distribution;
+import closestpair.result.ClosestPairResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Brute force closest pair. It is quadratic, so it uses its own smaller sizes.
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+public class BruteForceBenchmark {
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Param({"UNIFORM", "GAUSSIAN_CLUSTERS", "LINE"})
+    public Distribution distribution;
+
+    PointSet points;
+
+    @Setup
+    public void generate() {
+        points = new DatasetGenerator(distribution, 42, 10 * size, 20).generate(size);
+    }
+
+    @Benchmark
+    public ClosestPairResult bruteForce() {
+        return SpacePartition2D.closestPair(points, 0, points.size());
+    }
+}
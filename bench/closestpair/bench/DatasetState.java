@@ -0,0 +1,41 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.bench;
+
+import closestpair.Point2D;
+import closestpair.PointSet;
+import closestpair.io.DatasetGenerator;
+import closestpair.io.Distribution;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Points shared by all iterations of a benchmark. They are generated from a fixed seed once per trial, outside of the measurements.
+*/
+@State(Scope.Benchmark)
+public class DatasetState {
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"UNIFORM", "GAUSSIAN_CLUSTERS", "LINE"})
+    public Distribution distribution;
+
+    // Points in the order they were generated
+    public PointSet unsorted;
+
+    // Points sorted by x
+    public PointSet sorted;
+
+    @Setup
+    public void generate() {
+        // Same range as InputFileHandler.create
+        int width = (int) Math.min(1 << 30, 10L * size);
+        unsorted = new DatasetGenerator(distribution, 42, width, 20).generate(size);
+        sorted = unsorted.copy();
+        Point2D.sort(sorted);
+    }
+}
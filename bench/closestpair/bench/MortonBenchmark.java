@@ -0,0 +1,67 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.bench;
+
+import closestpair.ApproximateClosestPair;
+import closestpair.KDTree;
+import closestpair.result.ClosestPairResult;
+import closestpair.result.NeighboursResult;
+import closestpair.result.ReorderResult;
+import closestpair.sort.MortonOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Z-order reordering, and the spatial lookups of the KD tree with and without it, on points in the order they were generated
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class MortonBenchmark {
+    @State(Scope.Thread)
+    public static class Trees {
+        @Param({"false", "true"})
+        public boolean morton;
+
+        KDTree tree;
+
+        @Setup
+        public void build(DatasetState dataset) {
+            tree = new KDTree(dataset.unsorted, morton);
+        }
+    }
+
+    @Benchmark
+    public ReorderResult reorder(DatasetState dataset) {
+        return MortonOrder.reorder(dataset.unsorted);
+    }
+
+    @Benchmark
+    public KDTree kdTreeBuild(DatasetState dataset, Trees trees) {
+        return new KDTree(dataset.unsorted, trees.morton);
+    }
+
+    @Benchmark
+    public NeighboursResult kdTreeNeighbours(Trees trees) {
+        return trees.tree.allNearestNeighbours();
+    }
+
+    @Benchmark
+    public ClosestPairResult approximate(DatasetState dataset) {
+        return new ApproximateClosestPair(0.5).closestPair(dataset.unsorted);
+    }
+}
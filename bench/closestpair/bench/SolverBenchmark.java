@@ -0,0 +1,80 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.bench;
+
+import closestpair.ClosestPair;
+import closestpair.ParallelClosestPair;
+import closestpair.SpacePartition2D;
+import closestpair.SweepClosestPair;
+import closestpair.Workspace;
+import closestpair.result.ClosestPairResult;
+import closestpair.result.SpacePartitionResult;
+import closestpair.util.LongTreeSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Partitioning, the recursive solvers and the sweep line on points that are already sorted
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SolverBenchmark {
+    @State(Scope.Thread)
+    public static class Solvers {
+        Workspace workspace;
+        ParallelClosestPair parallel;
+        LongTreeSet active;
+
+        @Setup
+        public void create(DatasetState dataset) {
+            workspace = new Workspace(dataset.size);
+            parallel = new ParallelClosestPair();
+            active = new LongTreeSet(64);
+        }
+
+        @TearDown
+        public void shutdown() {
+            parallel.shutdown();
+        }
+    }
+
+    @Benchmark
+    public SpacePartitionResult partition(DatasetState dataset) {
+        return SpacePartition2D.partition(dataset.sorted);
+    }
+
+    @Benchmark
+    public ClosestPairResult recursive(DatasetState dataset) {
+        return ClosestPair.closestPair(dataset.sorted);
+    }
+
+    @Benchmark
+    public ClosestPairResult recursiveReusingWorkspace(DatasetState dataset, Solvers solvers) {
+        return ClosestPair.closestPair(dataset.sorted, solvers.workspace);
+    }
+
+    @Benchmark
+    public ClosestPairResult parallel(DatasetState dataset, Solvers solvers) {
+        return solvers.parallel.closestPair(dataset.sorted, solvers.workspace);
+    }
+
+    @Benchmark
+    public ClosestPairResult sweep(DatasetState dataset, Solvers solvers) {
+        return SweepClosestPair.sweep(dataset.sorted, solvers.active);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.bench;
+
+import closestpair.Point2D;
+import closestpair.PointSet;
+import closestpair.result.ExecutionResult;
+import closestpair.sort.PointSorter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sorting unsorted points with each sorter. Every invocation sorts a fresh copy, made outside of the measurement.
+*/
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SortBenchmark {
+    @State(Scope.Thread)
+    public static class Input {
+        @Param({"parallel", "radix", "runs"})
+        public String sorter;
+
+        PointSorter strategy;
+        PointSet points;
+
+        @Setup(Level.Trial)
+        public void select() {
+            for (PointSorter candidate : PointSorter.all()) {
+                if (candidate.getName().equals(sorter))
+                    strategy = candidate;
+            }
+
+            if (strategy == null)
+                throw new IllegalArgumentException("Unknown sorter " + sorter);
+        }
+
+        @Setup(Level.Invocation)
+        public void copy(DatasetState dataset) {
+            points = dataset.unsorted.copy();
+        }
+    }
+
+    /**
+     * Fresh copy for the benchmarks that don't depend on the sorter
+    */
+    @State(Scope.Thread)
+    public static class Copy {
+        PointSet points;
+
+        @Setup(Level.Invocation)
+        public void copy(DatasetState dataset) {
+            points = dataset.unsorted.copy();
+        }
+    }
+
+    @Benchmark
+    public ExecutionResult sorter(Input input) {
+        return input.strategy.sort(input.points);
+    }
+
+    @Benchmark
+    public ExecutionResult pointSort(Copy input) {
+        return Point2D.sort(input.points);
+    }
+}
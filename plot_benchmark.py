@@ -12,6 +12,7 @@ as a function of the input size.
 """
 
 # imports the needed methods from numerical python and matplotlib library
+import json
 import numpy as np
 import os
 import sys
@@ -54,4 +55,41 @@ for case, values in data.items():
     ax.legend()
 
     # exports the figure in PNG with a resolution of 600 DPI
-    fig.savefig(f"output/{case}.png", dpi=600)
\ No newline at end of file
+    fig.savefig(f"output/{case}.png", dpi=600)
+
+
+""" JMH results """
+
+# Plots the results of "ant bench" if they exist
+if os.path.isfile("output/jmh.json"):
+    with open("output/jmh.json") as jmh:
+        results = json.load(jmh)
+
+    # groups the scores by benchmark and by every parameter except the size
+    series = {}
+
+    for result in results:
+        params = dict(result.get("params", {}))
+        size = int(params.pop("size"))
+        name = result["benchmark"].split(".")[-1]
+        label = " ".join(f"{key}={value}" for key, value in sorted(params.items()))
+        metric = result["primaryMetric"]
+        series.setdefault(name, {}).setdefault(label, []).append((size, metric["score"], metric["scoreUnit"]))
+
+    for name, lines in series.items():
+        plt.close('all')
+        fig, ax = plt.subplots()
+
+        for label, points in lines.items():
+            points.sort()
+            size = np.array([point[0] for point in points])
+            score = np.array([point[1] for point in points])
+            ax.loglog(size, score, marker='o', label=label or name)
+
+        ax.set_xlabel('input size, N')
+        ax.set_ylabel(f'time, {points[0][2]}')
+        ax.set_title(f'{name} (JMH)')
+        ax.legend(fontsize='small')
+
+        # exports the figure in PNG with a resolution of 600 DPI
+        fig.savefig(f"output/jmh_{name}.png", dpi=600)
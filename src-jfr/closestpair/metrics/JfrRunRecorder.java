@@ -0,0 +1,15 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.metrics;
+
+/**
+ * Records every run as a closestpair.Run flight recorder event. Requires JDK 11 or newer, or 8u262 or newer.
+*/
+public class JfrRunRecorder implements RunRecorder {
+    @Override
+    public void record(String solver, int points, long iterations, int depth, long allocated, long time) {
+        RunEvent.commit(solver, points, iterations, depth, allocated, time);
+    }
+}
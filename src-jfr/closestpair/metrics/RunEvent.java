@@ -0,0 +1,59 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event for one run of a closest pair solver. Only loaded when metrics are enabled and the runtime has JFR.
+*/
+@Name("closestpair.Run")
+@Label("Closest Pair Run")
+@Category("Closest Pair")
+@StackTrace(false)
+class RunEvent extends jdk.jfr.Event {
+    @Label("Solver")
+    String solver;
+
+    @Label("Points")
+    int points;
+
+    @Label("Iterations")
+    long iterations;
+
+    @Label("Recursion Depth")
+    int depth;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocated;
+
+    @Label("Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long time;
+
+    /**
+     * Records a run that has just finished
+    */
+    static void commit(String solver, int points, long iterations, int depth, long allocated, long time) {
+        RunEvent event = new RunEvent();
+
+        if (!event.isEnabled())
+            return;
+
+        event.solver = solver;
+        event.points = points;
+        event.iterations = iterations;
+        event.depth = depth;
+        event.allocated = allocated;
+        event.time = time;
+        event.commit();
+    }
+}
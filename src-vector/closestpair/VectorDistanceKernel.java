@@ -0,0 +1,78 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Distance kernel that computes the squared distances to a whole vector of points at once with the JDK Vector API.
+ * Coordinates are loaded as ints and widened to longs, so the distances are exact like those of the scalar kernel.
+ * Each lane keeps the smallest distance it has seen and its position, and the lanes are reduced at the end.
+ * Requires JDK 16 or newer and --add-modules jdk.incubator.vector.
+*/
+public class VectorDistanceKernel implements DistanceKernel {
+    private static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+    // Ints with as many lanes as the longs
+    private static final VectorSpecies<Integer> INTS = VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+    private static final LongVector LANES = LongVector.zero(LONGS).addIndex(1);
+
+    @Override
+    public int nearest(int[] xs, int[] ys, int start, int end, long x, long y, long bound) {
+        int lanes = LONGS.length();
+        int j = start;
+        long minimun = bound;
+        int nearest = -1;
+
+        if (end - start >= lanes) {
+            LongVector vx = LongVector.broadcast(LONGS, x);
+            LongVector vy = LongVector.broadcast(LONGS, y);
+            LongVector minimuns = LongVector.broadcast(LONGS, bound);
+            LongVector positions = LongVector.broadcast(LONGS, -1);
+            int upperBound = start + INTS.loopBound(end - start);
+
+            for (; j < upperBound; j += lanes) {
+                LongVector dx = ((LongVector) IntVector.fromArray(INTS, xs, j).convertShape(VectorOperators.I2L, LONGS, 0)).sub(vx);
+                LongVector dy = ((LongVector) IntVector.fromArray(INTS, ys, j).convertShape(VectorOperators.I2L, LONGS, 0)).sub(vy);
+                LongVector distances = dx.mul(dx).add(dy.mul(dy));
+
+                // Lanes only keep strictly smaller distances, so each one keeps the first position of its minimun
+                VectorMask<Long> smaller = distances.lt(minimuns);
+                minimuns = minimuns.blend(distances, smaller);
+                positions = positions.blend(LANES.add(j), smaller);
+            }
+
+            long vectorMinimun = minimuns.reduceLanes(VectorOperators.MIN);
+
+            if (vectorMinimun < bound) {
+                minimun = vectorMinimun;
+                nearest = (int) positions.reduceLanes(VectorOperators.MIN, minimuns.eq(vectorMinimun));
+            }
+        }
+
+        // Points left after the last full vector are compared one at a time
+        for (; j < end; j++) {
+            long dx = xs[j] - x;
+            long dy = ys[j] - y;
+            long distance = dx*dx + dy*dy;
+
+            if (distance < minimun) {
+                minimun = distance;
+                nearest = j;
+            }
+        }
+
+        return nearest;
+    }
+
+    @Override
+    public String getName() {
+        return "vector";
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+import closestpair.result.ApproximateClosestPairResult;
+import closestpair.result.ClosestPairResult;
+import closestpair.sort.MortonOrder;
+import closestpair.sort.RadixKeySorter;
+
+/**
+ * Finds a pair whose distance is at most 1 + epsilon times the closest distance, in near linear time.
+ * First the points are sorted in Z-order twice, the second time shifted by half the range along the diagonal, and each
+ * point is compared to the next few points of each order. Close points are almost always near each other in one of the
+ * orders, so this gives a pair with distance r that is usually the closest or close to it. Then the bound is certified
+ * with a grid of cells with side r / (1 + epsilon): any pair closer than that is in neighbouring cells, so either a
+ * closer pair is found or r is within the factor. Larger epsilons give smaller cells and fewer comparisons, and 0 gives
+ * the exact pair. Both phases radix sort the points and then read them sequentially.
+ * With a time budget, the best pair found so far is returned when it runs out, without the guarantee. The first Z-order
+ * pass always completes, so the pair has been compared with its neighbours in that order.
+ * Does not need the points to be sorted, and does not modify them.
+*/
+public class ApproximateClosestPair implements ClosestPairSolver {
+    public static final int DEFAULT_WINDOW = 8;
+    private static final int SHIFTS = 2;
+
+    // Bits per axis of the Z-order codes beyond half the bits of the number of points
+    private static final int CODE_EXTRA_BITS = 4;
+
+    // Points processed between checks of the time budget
+    private static final int CHECK_INTERVAL = 4096;
+
+    private final double epsilon;
+    private final long timeBudget;
+    private final int window;
+
+    /**
+     * Solver without a time budget
+    */
+    public ApproximateClosestPair(double epsilon) {
+        this(epsilon, 0);
+    }
+
+    /**
+     * Solver that stops after the given number of nanoseconds, or never if it is not positive
+    */
+    public ApproximateClosestPair(double epsilon, long timeBudget) {
+        this(epsilon, timeBudget, DEFAULT_WINDOW);
+    }
+
+    /**
+     * Solver that compares each point to the next window points of each Z-order
+    */
+    public ApproximateClosestPair(double epsilon, long timeBudget, int window) {
+        if (!(epsilon >= 0) || Double.isInfinite(epsilon))
+            throw new IllegalArgumentException("Epsilon must be a finite number not smaller than 0");
+
+        if (window < 1)
+            throw new IllegalArgumentException("The window must have at least 1 point");
+
+        this.epsilon = epsilon;
+        this.timeBudget = timeBudget;
+        this.window = window;
+    }
+
+    public double getEpsilon() {
+        return epsilon;
+    }
+
+    @Override
+    public ClosestPairResult closestPair(PointSet points) {
+        long startTime = System.nanoTime();
+        long deadline = timeBudget > 0 ? startTime + timeBudget : Long.MAX_VALUE;
+        int n = points.size();
+        Candidate best = new Candidate();
+        boolean certified = n < 2 || (scan(points, best, deadline) && certify(points, best, deadline));
+
+        // Pairs are kept in the order of the point set
+        if (best.first > best.second) {
+            int temp = best.first;
+            best.first = best.second;
+            best.second = temp;
+        }
+
+        long time = System.nanoTime() - startTime;
+
+        if (best.first < 0)
+            return new ApproximateClosestPairResult(null, null, -1, -1, best.distance, epsilon, certified, best.iterations, time);
+
+        return new ApproximateClosestPairResult(points.get(best.first), points.get(best.second), best.first, best.second, best.distance, epsilon, certified, best.iterations, time);
+    }
+
+    /**
+     * Compares each point to the next points of each shifted Z-order. Returns false if the time budget ran out.
+    */
+    private boolean scan(PointSet points, Candidate best, long deadline) {
+        int n = points.size();
+        int[] xs = points.getXs();
+        int[] ys = points.getYs();
+        long minX = Long.MAX_VALUE;
+        long minY = Long.MAX_VALUE;
+        long maxX = Long.MIN_VALUE;
+        long maxY = Long.MIN_VALUE;
+
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+
+        // Coordinates are scaled to a few bits more than needed to tell apart sqrt(n) positions per axis, so that the
+        // radix sort only needs a few passes. One more bit is left for the shift.
+        int bits = Math.min(31, (Integer.SIZE - Integer.numberOfLeadingZeros(n)) / 2 + CODE_EXTRA_BITS);
+        long range = Math.max(maxX - minX, maxY - minY);
+        int scale = Math.max(0, Long.SIZE - Long.numberOfLeadingZeros(range) - bits);
+        long[] codes = new long[n];
+        int[] order = new int[n];
+        int[] px = new int[n];
+        int[] py = new int[n];
+
+        for (int shift = 0; shift < SHIFTS; shift++) {
+            // The first order is always sorted, so that there is a pair to return
+            if (shift > 0 && System.nanoTime() > deadline)
+                return false;
+
+            long offset = shift * (1L << bits) / SHIFTS;
+
+            for (int i = 0; i < n; i++) {
+                long x = ((xs[i] - minX) >> scale) + offset;
+                long y = ((ys[i] - minY) >> scale) + offset;
+                codes[i] = MortonOrder.encode(x, y);
+                order[i] = i;
+            }
+
+            best.iterations += n + RadixKeySorter.sort(codes, order, n);
+
+            // Copies the points in Z-order so that the windows are read sequentially
+            for (int i = 0; i < n; i++) {
+                px[i] = xs[order[i]];
+                py[i] = ys[order[i]];
+            }
+
+            best.iterations += n;
+
+            for (int i = 0; i < n - 1; i++) {
+                int end = Math.min(n, i + 1 + window);
+
+                for (int j = i + 1; j < end; j++)
+                    compare(px, py, order, i, j, best);
+
+                if (best.distance == 0)
+                    return true;
+
+                // The first pass always completes
+                if (shift > 0 && i % CHECK_INTERVAL == 0 && System.nanoTime() > deadline)
+                    return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Compares all pairs of points in neighbouring cells of a grid whose side is the distance found divided by 1 + epsilon.
+     * Returns false if the time budget ran out.
+    */
+    private boolean certify(PointSet points, Candidate best, long deadline) {
+        if (best.distance == 0)
+            return true;
+
+        int n = points.size();
+        int[] xs = points.getXs();
+        int[] ys = points.getYs();
+        long side = Math.max(1, (long) Math.ceil(Math.sqrt((double) best.distance) / (1 + epsilon)));
+
+        long minColumn = Long.MAX_VALUE;
+        long minRow = Long.MAX_VALUE;
+        long maxColumn = Long.MIN_VALUE;
+        long maxRow = Long.MIN_VALUE;
+
+        for (int i = 0; i < n; i++) {
+            minColumn = Math.min(minColumn, Math.floorDiv((long) xs[i], side));
+            minRow = Math.min(minRow, Math.floorDiv((long) ys[i], side));
+            maxColumn = Math.max(maxColumn, Math.floorDiv((long) xs[i], side));
+            maxRow = Math.max(maxRow, Math.floorDiv((long) ys[i], side));
+        }
+
+        // Cell keys have the column above the row, both counted from the first cell, so that they have as few bits as possible
+        int rowBits = Math.max(1, Long.SIZE - Long.numberOfLeadingZeros(maxRow - minRow));
+        long rowMask = (1L << rowBits) - 1;
+        long columns = maxColumn - minColumn;
+
+        // Sorts the points by cell, by column and then by row, and copies them in that order
+        long[] cells = new long[n];
+        int[] order = new int[n];
+        int[] px = new int[n];
+        int[] py = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            cells[i] = (Math.floorDiv((long) xs[i], side) - minColumn) << rowBits | (Math.floorDiv((long) ys[i], side) - minRow);
+            order[i] = i;
+        }
+
+        best.iterations += n + RadixKeySorter.sort(cells, order, n);
+
+        for (int i = 0; i < n; i++) {
+            px[i] = xs[order[i]];
+            py[i] = ys[order[i]];
+        }
+
+        best.iterations += n;
+
+        // Each cell is compared to itself, to the cell above it and to the 3 cells around it in the next column.
+        // The cells of the next column come later in the same order, so the position where they start only moves forward.
+        int column = 0;
+        int nextCheck = CHECK_INTERVAL;
+
+        for (int start = 0; start < n; ) {
+            long cell = cells[start];
+            int end = start + 1;
+
+            while (end < n && cells[end] == cell)
+                end++;
+
+            for (int i = start; i < end; i++) {
+                for (int j = i + 1; j < end; j++)
+                    compare(px, py, order, i, j, best);
+            }
+
+            long row = cell & rowMask;
+
+            if (row < rowMask) {
+                for (int j = end; j < n && cells[j] == cell + 1; j++) {
+                    for (int i = start; i < end; i++)
+                        compare(px, py, order, i, j, best);
+                }
+            }
+
+            if (cell >>> rowBits < columns) {
+                long low = cell + (1L << rowBits) - (row > 0 ? 1 : 0);
+                long high = cell + (1L << rowBits) + (row < rowMask ? 1 : 0);
+
+                while (column < n && Long.compareUnsigned(cells[column], low) < 0)
+                    column++;
+
+                for (int j = column; j < n && Long.compareUnsigned(cells[j], high) <= 0; j++) {
+                    for (int i = start; i < end; i++)
+                        compare(px, py, order, i, j, best);
+                }
+            }
+
+            start = end;
+
+            if (start >= nextCheck) {
+                nextCheck = start + CHECK_INTERVAL;
+
+                if (System.nanoTime() > deadline)
+                    return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Compares 2 points of copied coordinate arrays, offering their indices in the point set
+    */
+    private static void compare(int[] px, int[] py, int[] order, int i, int j, Candidate best) {
+        long dx = (long) px[j] - px[i];
+        long dy = (long) py[j] - py[i];
+        best.iterations++;
+        best.offer(order[i], order[j], dx*dx + dy*dy);
+    }
+
+    @Override
+    public String getName() {
+        return "approximate";
+    }
+}
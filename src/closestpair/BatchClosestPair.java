@@ -0,0 +1,289 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+import closestpair.metrics.Metrics;
+import closestpair.result.ExecutionResult;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds the closest pair of many independent point sets in one call.
+ * The sets are packed one after the other in a pair of coordinate arrays, and set i is in the positions from offsets[i]
+ * to offsets[i + 1]. Sets are solved in parallel, each one by a single worker with the recursive algorithm.
+ * Every worker thread keeps its own scratch arrays between calls, so solving a set does not allocate once they are large enough.
+ * The input is not modified.
+*/
+public class BatchClosestPair {
+    // Tasks with this many points or less solve their sets sequentially
+    public static final int DEFAULT_THRESHOLD = 16384;
+
+    private static final ThreadLocal<Arena> ARENAS = ThreadLocal.withInitial(Arena::new);
+
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final int threshold;
+
+    /**
+     * Uses the common pool and the default threshold
+    */
+    public BatchClosestPair() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates its own pool with the given number of threads
+    */
+    public BatchClosestPair(int parallelism, int threshold) {
+        this(new ForkJoinPool(parallelism), threshold, true);
+    }
+
+    /**
+     * Runs on a pool owned by the caller
+    */
+    public BatchClosestPair(ForkJoinPool pool, int threshold) {
+        this(pool, threshold, false);
+    }
+
+    private BatchClosestPair(ForkJoinPool pool, int threshold, boolean ownsPool) {
+        if (threshold < 1)
+            throw new IllegalArgumentException("The threshold must be positive");
+
+        this.pool = pool;
+        this.threshold = threshold;
+        this.ownsPool = ownsPool;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Finds the closest pair of each of the first count sets. The pair of set i is written to position i of the output arrays,
+     * as positions relative to the start of the set with the first one smaller. Sets with less than two points get -1 as both
+     * positions and Long.MAX_VALUE as distance.
+     * Time is the elapsed time of the whole batch and iterations are the sum of those of every set.
+    */
+    public ExecutionResult closestPairs(int[] xs, int[] ys, int[] offsets, int count, int[] firsts, int[] seconds, long[] distances) {
+        return closestPairs(xs, ys, offsets, count, firsts, seconds, distances, null);
+    }
+
+    /**
+     * Finds the closest pair of each of the first count sets, also writing the iterations of each set if the array is not null
+    */
+    public ExecutionResult closestPairs(int[] xs, int[] ys, int[] offsets, int count, int[] firsts, int[] seconds, long[] distances, long[] setIterations) {
+        long startTime = System.nanoTime();
+
+        if (offsets.length < count + 1 || firsts.length < count || seconds.length < count || distances.length < count || setIterations != null && setIterations.length < count)
+            throw new IllegalArgumentException("The offsets must have count + 1 positions and the outputs count positions");
+
+        long allocated = Metrics.ENABLED ? Metrics.allocatedBytes() : 0;
+        long iterations = count == 0 ? 0 : pool.invoke(new Task(xs, ys, offsets, 0, count, firsts, seconds, distances, setIterations, threshold));
+        long time = System.nanoTime() - startTime;
+
+        // The whole batch is recorded as one run, as deep as its largest set
+        if (Metrics.ENABLED) {
+            int largest = 0;
+
+            for (int i = 0; i < count; i++)
+                largest = Math.max(largest, offsets[i + 1] - offsets[i]);
+
+            Metrics.run("batch", offsets[count] - offsets[0], iterations, ClosestPair.depth(largest, Tuning.get().getLeafSize()), allocated, time);
+        }
+
+        return new ExecutionResult(iterations, time);
+    }
+
+    /**
+     * Shuts down the pool if it was created by this solver
+    */
+    public void shutdown() {
+        if (ownsPool)
+            pool.shutdown();
+    }
+
+    /**
+     * Packs point sets one after the other into the coordinate arrays and fills their offsets, which must have one more
+     * position than there are sets. Returns the number of points.
+    */
+    public static int pack(PointSet[] sets, int[] xs, int[] ys, int[] offsets) {
+        int position = 0;
+
+        for (int i = 0; i < sets.length; i++) {
+            offsets[i] = position;
+            System.arraycopy(sets[i].getXs(), 0, xs, position, sets[i].size());
+            System.arraycopy(sets[i].getYs(), 0, ys, position, sets[i].size());
+            position += sets[i].size();
+        }
+
+        offsets[sets.length] = position;
+
+        return position;
+    }
+
+    /**
+     * Finds the closest pair of one set with the scratch arrays of the current thread and returns its iterations
+    */
+    static long solve(int[] xs, int[] ys, int start, int end, int set, int[] firsts, int[] seconds, long[] distances) {
+        int size = end - start;
+
+        if (size < 2) {
+            firsts[set] = -1;
+            seconds[set] = -1;
+            distances[set] = Long.MAX_VALUE;
+
+            return 0;
+        }
+
+        Tuning tuning = Tuning.get();
+
+        if (size <= tuning.getBruteForceThreshold())
+            return bruteForce(xs, ys, start, end, set, firsts, seconds, distances);
+
+        Arena arena = ARENAS.get();
+        arena.ensureCapacity(size);
+        long[] keys = arena.keys;
+
+        // Sorts the set by x, keeping the position of every point in the low half of its key
+        for (int i = 0; i < size; i++)
+            keys[i] = (long) xs[start + i] << 32 | i;
+
+        Arrays.sort(keys, 0, size);
+        int[] sortedXs = arena.xs;
+        int[] sortedYs = arena.ys;
+        int[] positions = arena.positions;
+
+        for (int i = 0; i < size; i++) {
+            int position = (int) keys[i];
+            sortedXs[i] = xs[start + position];
+            sortedYs[i] = ys[start + position];
+            positions[i] = position;
+        }
+
+        Candidate best = arena.best;
+        best.first = -1;
+        best.second = -1;
+        best.distance = Long.MAX_VALUE;
+        best.iterations = 0;
+        ClosestPair.closestPair(sortedXs, sortedYs, arena.workspace, 0, size, tuning.getLeafSize(), best);
+
+        // Maps the pair back to positions in the unsorted set
+        int first = positions[best.first];
+        int second = positions[best.second];
+        firsts[set] = Math.min(first, second);
+        seconds[set] = Math.max(first, second);
+        distances[set] = best.distance;
+
+        return best.iterations;
+    }
+
+    /**
+     * Finds the closest pair of a small set by comparing all its points, without sorting it, and returns its iterations
+    */
+    private static long bruteForce(int[] xs, int[] ys, int start, int end, int set, int[] firsts, int[] seconds, long[] distances) {
+        int first = -1;
+        int second = -1;
+        long minimunDistance = Long.MAX_VALUE;
+
+        for (int i = start; i < end - 1; i++) {
+            long x = xs[i];
+            long y = ys[i];
+            int j = DistanceKernel.DEFAULT.nearest(xs, ys, i + 1, end, x, y, minimunDistance);
+
+            if (j >= 0) {
+                long dx = xs[j] - x;
+                long dy = ys[j] - y;
+                first = i - start;
+                second = j - start;
+                minimunDistance = dx*dx + dy*dy;
+            }
+        }
+
+        firsts[set] = first;
+        seconds[set] = second;
+        distances[set] = minimunDistance;
+
+        return (long) (end - start) * (end - start - 1) / 2;
+    }
+
+    /**
+     * Scratch arrays of one thread, grown to fit the largest set it has solved
+    */
+    private static class Arena {
+        long[] keys = new long[0];
+        int[] xs = new int[0];
+        int[] ys = new int[0];
+        int[] positions = new int[0];
+        final Workspace workspace = new Workspace(0);
+        final Candidate best = new Candidate();
+
+        void ensureCapacity(int capacity) {
+            if (keys.length < capacity) {
+                int length = Math.max(capacity, keys.length + (keys.length >> 1));
+                keys = new long[length];
+                xs = new int[length];
+                ys = new int[length];
+                positions = new int[length];
+            }
+
+            workspace.ensureCapacity(capacity);
+        }
+    }
+
+    /**
+     * Solves a range of sets, splitting it in two while it has more points than the threshold and more than one set
+    */
+    @SuppressWarnings("serial")
+    private static class Task extends RecursiveTask<Long> {
+        private final int[] xs;
+        private final int[] ys;
+        private final int[] offsets;
+        private final int start;
+        private final int end;
+        private final int[] firsts;
+        private final int[] seconds;
+        private final long[] distances;
+        private final long[] setIterations;
+        private final int threshold;
+
+        Task(int[] xs, int[] ys, int[] offsets, int start, int end, int[] firsts, int[] seconds, long[] distances, long[] setIterations, int threshold) {
+            this.xs = xs;
+            this.ys = ys;
+            this.offsets = offsets;
+            this.start = start;
+            this.end = end;
+            this.firsts = firsts;
+            this.seconds = seconds;
+            this.distances = distances;
+            this.setIterations = setIterations;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Long compute() {
+            if (end - start > 1 && offsets[end] - offsets[start] > threshold) {
+                int mid = start + (end - start) / 2;
+                Task left = new Task(xs, ys, offsets, start, mid, firsts, seconds, distances, setIterations, threshold);
+                left.fork();
+                long iterations = new Task(xs, ys, offsets, mid, end, firsts, seconds, distances, setIterations, threshold).compute();
+
+                return iterations + left.join();
+            }
+
+            long iterations = 0;
+
+            for (int set = start; set < end; set++) {
+                long iterationsOfSet = solve(xs, ys, offsets[set], offsets[set + 1], set, firsts, seconds, distances);
+                iterations += iterationsOfSet;
+
+                if (setIterations != null)
+                    setIterations[set] = iterationsOfSet;
+            }
+
+            return iterations;
+        }
+    }
+}
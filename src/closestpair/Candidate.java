@@ -0,0 +1,26 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+/**
+ * Closest pair found so far by an algorithm, as indices in a point set
+*/
+class Candidate {
+    int first = -1;
+    int second = -1;
+    long distance = Long.MAX_VALUE;
+    long iterations;
+
+    /**
+     * Replaces the pair if the given distance is strictly smaller
+    */
+    void offer(int first, int second, long distance) {
+        if (distance < this.distance) {
+            this.distance = distance;
+            this.first = first;
+            this.second = second;
+        }
+    }
+}
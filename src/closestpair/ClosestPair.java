@@ -28,7 +28,12 @@
 package closestpair;
 
 import closestpair.result.ClosestPairResult;
-import closestpair.result.SpacePartitionResult;
+import closestpair.result.ExecutionResult;
+import closestpair.result.LoadResult;
+import closestpair.metrics.Counter;
+import closestpair.metrics.Metrics;
+import closestpair.metrics.Phase;
+import closestpair.sort.PointSorter;
 import closestpair.io.OutputFileHandler;
 import closestpair.io.InputFileHandler;
 import java.io.File;
@@ -40,66 +45,239 @@ import java.util.ArrayList;
  */
 public class ClosestPair {
     /**
-     * Recursively finds the closest pair of points in a list of points
+     * Recursively finds the closest pair of points in a list of points sorted by x
     */
     public static ClosestPairResult closestPair(ArrayList<Point2D> points) {
-        Point2D point1 = null;
-        Point2D point2 = null;
-        
-        // Splits the list of points into space partitions and starts counting iterations, and elapsed time
-        SpacePartitionResult partitionResult = SpacePartition2D.partition(points);
-        long iterations = partitionResult.getIterations();
-        long time = partitionResult.getTime();
-        long minimunDistance = Long.MAX_VALUE;
-        ArrayList<SpacePartition2D> partitions = partitionResult.getPartitions();
-        
-        // For each partition
-        for (SpacePartition2D partition : partitions) {
-            // Finds the closest pair in the partition
-            ClosestPairResult result = partition.closestPair();
-            iterations += 1 + result.getIterations();
-            time += result.getTime();
-            
-            // If the distance of the partition's closest pair is smaller than the overall minimun distance it becomes the new overall closest pair
-            if (result.getDistance() < minimunDistance) {
-                minimunDistance = result.getDistance();
-                point1 = result.getPoint1();
-                point2 = result.getPoint2();
+        ClosestPairResult result = closestPair(PointSet.from(points));
+
+        if (result.getPoint1() == null)
+            return result;
+
+        // Returns the original point objects
+        return new ClosestPairResult(points.get(result.getIndex1()), points.get(result.getIndex2()), result.getIndex1(), result.getIndex2(), result.getDistance(), result.getIterations(), result.getTime());
+    }
+
+    /**
+     * Recursively finds the closest pair of points in a point set sorted by x
+    */
+    public static ClosestPairResult closestPair(PointSet points) {
+        return closestPair(points, new Workspace(points.size()));
+    }
+
+    /**
+     * Recursively finds the closest pair of points in a point set sorted by x, using the given scratch arrays
+    */
+    public static ClosestPairResult closestPair(PointSet points, Workspace workspace) {
+        return closestPair(points, workspace, Tuning.get().getLeafSize());
+    }
+
+    /**
+     * Recursively finds the closest pair of points in a point set sorted by x, comparing all points of sublists with up to leafSize points
+    */
+    static ClosestPairResult closestPair(PointSet points, Workspace workspace, int leafSize) {
+        long startTime = System.nanoTime();
+        long allocated = Metrics.ENABLED ? Metrics.allocatedBytes() : 0;
+        workspace.ensureCapacity(points.size());
+        Candidate best = new Candidate();
+        closestPair(points.getXs(), points.getYs(), workspace, 0, points.size(), leafSize, best);
+        long time = System.nanoTime() - startTime;
+
+        if (Metrics.ENABLED)
+            Metrics.run("recursive", points.size(), best.iterations, depth(points.size(), leafSize), allocated, time);
+
+        return result(points, best, time);
+    }
+
+    /**
+     * Creates the result for the best pair found in a point set
+    */
+    static ClosestPairResult result(PointSet points, Candidate best, long time) {
+        if (best.first < 0)
+            return new ClosestPairResult(null, null, best.distance, best.iterations, time);
+
+        return new ClosestPairResult(points.get(best.first), points.get(best.second), best.first, best.second, best.distance, best.iterations, time);
+    }
+
+    /**
+     * Depth of the recursion for a sublist of the given size, counting the first call as depth 1.
+     * Sublists are always split the same way, so it only depends on the size.
+    */
+    static int depth(int size, int leafSize) {
+        int depth = 1;
+
+        while (size > leafSize) {
+            size -= size / 2;
+            depth++;
+        }
+
+        return depth;
+    }
+
+    /**
+     * Finds the closest pair in a sublist of points sorted by x. End is exclusive.
+     * When it returns, the sublist has also been written to the workspace sorted by y, so that each level only has to merge both halves.
+    */
+    static void closestPair(int[] xs, int[] ys, Workspace workspace, int start, int end, int leafSize, Candidate best) {
+        best.iterations++;
+
+        // If the sublist fits in a leaf, compares all of its points and sorts them by y
+        if (end - start <= leafSize) {
+            base(xs, ys, workspace, start, end, best);
+            return;
+        }
+
+        // Splits the sublist in half and solves both halves independently
+        int mid = start + (end - start) / 2;
+        closestPair(xs, ys, workspace, start, mid, leafSize, best);
+        long leftDistance = best.distance;
+        int leftFirst = best.first;
+        int leftSecond = best.second;
+        best.distance = Long.MAX_VALUE;
+        closestPair(xs, ys, workspace, mid, end, leafSize, best);
+
+        // The left half keeps the pair on ties
+        if (leftDistance <= best.distance) {
+            best.distance = leftDistance;
+            best.first = leftFirst;
+            best.second = leftSecond;
+        }
+
+        combine(workspace, start, mid, end, xs[mid], best);
+    }
+
+    /**
+     * Compares all points of a small sublist and writes them to the workspace sorted by y
+    */
+    static void base(int[] xs, int[] ys, Workspace workspace, int start, int end, Candidate best) {
+        long startTime = Metrics.ENABLED ? System.nanoTime() : 0;
+        long startIterations = best.iterations;
+        int[] yxs = workspace.xs;
+        int[] yys = workspace.ys;
+        int[] indices = workspace.indices;
+
+        for (int i = start; i < end; i++) {
+            long x = xs[i];
+            long y = ys[i];
+
+            int j = DistanceKernel.DEFAULT.nearest(xs, ys, i + 1, end, x, y, best.distance);
+            best.iterations += end - i - 1;
+
+            if (j >= 0) {
+                long dx = xs[j] - x;
+                long dy = ys[j] - y;
+                best.offer(i, j, dx*dx + dy*dy);
             }
+
+            int k = i;
+
+            while (k > start && yys[k - 1] > y) {
+                yxs[k] = yxs[k - 1];
+                yys[k] = yys[k - 1];
+                indices[k] = indices[k - 1];
+                k--;
+            }
+
+            yxs[k] = (int) x;
+            yys[k] = (int) y;
+            indices[k] = i;
         }
-        
-        // Loops through partitions to find closest pairs by combining partitions
-        for (int i = 0; i < partitions.size() - 1; i++) {
-            SpacePartition2D partition = partitions.get(i);
-            ArrayList<Point2D> p = partition.getPoints();
-            SpacePartition2D next = partitions.get(i + 1);
-            ArrayList<Point2D> candidates = new ArrayList<>();
-            
-            // Finds all points in current partition that could be part of the closest pair
-            for (int j = p.size() - 1; j > -1 && next.minX - p.get(j).getX() < minimunDistance; j--)
-                candidates.add(p.get(j));
 
-            // Finds all points in next partition that could be part of the closest pair
-            for (int j = 0; j < next.getPoints().size() && next.getPoints().get(j).getX() - partition.maxX < minimunDistance; j++)
-                candidates.add(next.getPoints().get(j));
-            
-            // If there are candidates for closest pair
-            if (candidates.size() > 0 ) {
-                // Finds minimun distance between candidates
-                ClosestPairResult result = new SpacePartition2D(candidates).closestPair();
-                iterations += 1 + result.getIterations();
-                time += result.getTime();
-
-                // If the distance is smaller than the minimun distance, it becomes the closest pair
-                if (result.getDistance() < minimunDistance) {
-                    minimunDistance = result.getDistance();
-                    point1 = result.getPoint1();
-                    point2 = result.getPoint2();
-                }
+        if (Metrics.ENABLED) {
+            Metrics.add(Counter.DISTANCES, best.iterations - startIterations);
+            Metrics.time(Phase.BASE, startTime);
+        }
+    }
+
+    /**
+     * Merges both halves of a sublist by y and looks for a closer pair across the dividing line
+    */
+    static void combine(Workspace workspace, int start, int mid, int end, int midX, Candidate best) {
+        long startTime = Metrics.ENABLED ? System.nanoTime() : 0;
+        long startIterations = best.iterations;
+        merge(workspace, start, mid, end);
+
+        int[] yxs = workspace.xs;
+        int[] yys = workspace.ys;
+        int[] indices = workspace.indices;
+        int[] stripXs = workspace.bufferXs;
+        int[] stripYs = workspace.bufferYs;
+        int[] stripIndices = workspace.bufferIndices;
+
+        // Finds all points that are closer to the dividing line than the minimun distance. They keep their order by y.
+        int stripEnd = start;
+
+        for (int i = start; i < end; i++) {
+            long dx = (long) yxs[i] - midX;
+
+            if (dx * dx < best.distance) {
+                stripXs[stripEnd] = yxs[i];
+                stripYs[stripEnd] = yys[i];
+                stripIndices[stripEnd] = indices[i];
+                stripEnd++;
             }
         }
-        
-        return new ClosestPairResult(point1, point2, minimunDistance, iterations, time);
+
+        // Each point in the strip only has to be compared to the following points that are closer in y than the minimun distance, of which there are at most 7
+        for (int i = start; i < stripEnd - 1; i++) {
+            long x = stripXs[i];
+            long y = stripYs[i];
+
+            for (int j = i + 1; j < stripEnd; j++) {
+                long dy = stripYs[j] - y;
+
+                if (dy * dy >= best.distance)
+                    break;
+
+                long dx = stripXs[j] - x;
+                best.iterations++;
+                long distance = dx*dx + dy*dy;
+
+                // Pairs are kept in the order of the point set
+                if (stripIndices[i] < stripIndices[j])
+                    best.offer(stripIndices[i], stripIndices[j], distance);
+                else
+                    best.offer(stripIndices[j], stripIndices[i], distance);
+            }
+        }
+
+        if (Metrics.ENABLED) {
+            Metrics.strip(stripEnd - start);
+            Metrics.add(Counter.DISTANCES, best.iterations - startIterations);
+            Metrics.time(Phase.MERGE, startTime);
+        }
+    }
+
+    /**
+     * Merges two consecutive sublists of the workspace sorted by y using its buffer
+    */
+    static void merge(Workspace workspace, int start, int mid, int end) {
+        int[] xs = workspace.xs;
+        int[] ys = workspace.ys;
+        int[] indices = workspace.indices;
+        int[] bufferXs = workspace.bufferXs;
+        int[] bufferYs = workspace.bufferYs;
+        int[] bufferIndices = workspace.bufferIndices;
+        int i = start;
+        int j = mid;
+        int k = start;
+
+        while (i < mid && j < end) {
+            int from = ys[j] < ys[i] ? j++ : i++;
+            bufferXs[k] = xs[from];
+            bufferYs[k] = ys[from];
+            bufferIndices[k] = indices[from];
+            k++;
+        }
+
+        int rest = i < mid ? mid - i : end - j;
+        int from = i < mid ? i : j;
+        System.arraycopy(xs, from, bufferXs, k, rest);
+        System.arraycopy(ys, from, bufferYs, k, rest);
+        System.arraycopy(indices, from, bufferIndices, k, rest);
+
+        System.arraycopy(bufferXs, start, xs, start, end - start);
+        System.arraycopy(bufferYs, start, ys, start, end - start);
+        System.arraycopy(bufferIndices, start, indices, start, end - start);
     }
     
     /**
@@ -107,6 +285,7 @@ public class ClosestPair {
      */
     public static void main(String[] args) {
         String filename = "data.txt";
+        System.out.println(Tuning.get());
 
         // Creates the output directory if it does not exist
         File outdir = new File("output");
@@ -114,48 +293,77 @@ public class ClosestPair {
         if (!outdir.exists())
             outdir.mkdir();
         
-        // Creates the output files
-        OutputFileHandler recursiveOutput = new OutputFileHandler("output/recursive.txt");
-        OutputFileHandler bruteForceOutput = new OutputFileHandler("output/brute_force.txt");
+        // Creates the output files, one for each solver and one for each sorter
+        ClosestPairSolver[] solvers = { ClosestPairSolver.recursive(), ClosestPairSolver.bruteForce(), new GridClosestPair(), new SweepClosestPair() };
+        OutputFileHandler[] solverOutputs = new OutputFileHandler[solvers.length];
+        PointSorter[] sorters = PointSorter.all();
+        OutputFileHandler[] sortOutputs = new OutputFileHandler[sorters.length];
+
+        for (int k = 0; k < solvers.length; k++)
+            solverOutputs[k] = new OutputFileHandler("output/" + solvers[k].getName() + ".txt");
+
+        for (int k = 0; k < sorters.length; k++)
+            sortOutputs[k] = new OutputFileHandler("output/sort_" + sorters[k].getName() + ".txt");
         
         // Increases the input size by 2 up until it becomes greater than 50000
         int iMax = 50000;
         
         for (int i = 2; i < iMax; i *= 2) {
             // Average values for all repetitions
-            double recAvgI = 0;
-            double recAvgT = 0;
-            double bfAvgI = 0;
-            double bfAvgT = 0;
-            
-            recursiveOutput.write(i + "");
-            bruteForceOutput.write(i + "");
+            double[] solverAvgI = new double[solvers.length];
+            double[] solverAvgT = new double[solvers.length];
+            double[] sortAvgI = new double[sorters.length];
+            double[] sortAvgT = new double[sorters.length];
+
+            for (OutputFileHandler solverOutput : solverOutputs)
+                solverOutput.write(i + "");
+
+            for (OutputFileHandler sortOutput : sortOutputs)
+                sortOutput.write(i + "");
             
             // Repeats 10 times for each input size
             for (int j = 0; j < 10; j++) {
                 // Creates points and sorts
                 InputFileHandler.create(filename, i);
-                ArrayList<Point2D> points = InputFileHandler.read(filename);
+                LoadResult load = InputFileHandler.load(filename);
+                PointSet points = load.getPoints();
+                System.out.println("Loaded " + points.size() + " points at " + load.getThroughput() + " MB/s");
+
+                // Runs each sorting strategy on its own copy of the points
+                for (int k = 0; k < sorters.length; k++) {
+                    ExecutionResult sortResult = sorters[k].sort(points.copy());
+                    sortOutputs[k].write(" " + sortResult.getTime() + " " + sortResult.getIterations());
+                    sortAvgI[k] += (double) sortResult.getIterations() / 10;
+                    sortAvgT[k] += (double) sortResult.getTime() / 10;
+                }
+
                 Point2D.sort(points);
                 
-                // Runs recursive algorithm
-                System.out.println("Running recursive algorithm for " + i + " points " + j + " out of 10 times");
-                ClosestPairResult recursiveResult = closestPair(points);
-                recursiveOutput.write(" " + recursiveResult.getTime() + " " + recursiveResult.getIterations());
-                recAvgI += (double) recursiveResult.getIterations() / 10;
-                recAvgT += (double) recursiveResult.getTime() / 10;
-                
-                // Runs brute force algorithm
-                System.out.println("Running brute force algorithm for " + i + " points " + j + " out of 10 times");
-                ClosestPairResult bruteForceResult = new SpacePartition2D(points).closestPair();
-                bruteForceOutput.write(" " + bruteForceResult.getTime() + " " + bruteForceResult.getIterations());
-                bfAvgI += (double) bruteForceResult.getIterations() / 10;
-                bfAvgT += (double) bruteForceResult.getTime() / 10;
+                // Runs each solver on the sorted points
+                for (int k = 0; k < solvers.length; k++) {
+                    System.out.println("Running " + solvers[k].getName() + " algorithm for " + i + " points " + j + " out of 10 times");
+                    ClosestPairResult result = solvers[k].closestPair(points);
+                    solverOutputs[k].write(" " + result.getTime() + " " + result.getIterations());
+                    solverAvgI[k] += (double) result.getIterations() / 10;
+                    solverAvgT[k] += (double) result.getTime() / 10;
+                }
             }
             
             // Writes average values to output file
-            recursiveOutput.write(" " + recAvgT + " " + recAvgI + "\n");
-            bruteForceOutput.write(" " + bfAvgT + " " + bfAvgI + "\n");
+            for (int k = 0; k < solvers.length; k++)
+                solverOutputs[k].write(" " + solverAvgT[k] + " " + solverAvgI[k] + "\n");
+
+            for (int k = 0; k < sorters.length; k++)
+                sortOutputs[k].write(" " + sortAvgT[k] + " " + sortAvgI[k] + "\n");
         }
+
+        for (OutputFileHandler solverOutput : solverOutputs)
+            solverOutput.close();
+
+        for (OutputFileHandler sortOutput : sortOutputs)
+            sortOutput.close();
+
+        if (Metrics.ENABLED)
+            System.out.println(Metrics.snapshot());
     }
 }
@@ -0,0 +1,511 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+import closestpair.result.ClosestPairResult;
+import closestpair.sort.PointKeys;
+import closestpair.util.IndexedLongHeap;
+import closestpair.util.LongIntHashMap;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Keeps the closest pair of a set of points up to date while points are added and removed.
+ *
+ * Every point stores a partner, which was its nearest neighbour when it was last computed, and the points are kept in
+ * a heap by the distance to their partner. Adding a point only computes its own partner: any new pair includes the new
+ * point, and no pair with it is closer than its nearest neighbour. Removing a point recomputes the partner of the
+ * points that had it as partner. The pair at the top of the heap is always a closest pair, because the point of a
+ * closest pair that was added last computed its partner while the other point was already in the set.
+ *
+ * Nearest neighbours are found in a quadtree over the coordinates. Leaves are split when they have more than LEAF_SIZE
+ * points and merged back when their parent has half of that, so the tree has at most 32 levels and adapts to clusters.
+ * The search skips every square that is farther than the best distance found, so it only looks at points in the
+ * squares around the point, whatever their shape. Adding or removing a point walks one path of the tree. Each point
+ * is the partner of at most a few others, except for repeated points, so an update takes time proportional to the
+ * depth of the tree plus the points in the squares near the nearest neighbours. That is polylogarithmic for points
+ * whose density doesn't vary too much, but not a worst case bound: an isolated point whose neighbours are all far
+ * away still visits the squares between them.
+*/
+public class ClosestPairIndex {
+    private static final int NONE = -1;
+
+    // Most points in a leaf of the quadtree before it is split
+    private static final int LEAF_SIZE = 8;
+    // Side of the root square, which covers all ints
+    private static final int ROOT_LEVEL = 32;
+    private static final int ROOT = 0;
+    // Largest difference whose square doesn't overflow
+    private static final long MAX_DELTA = 3037000499L;
+
+    // Coordinates of each point by id. Ids of removed points are reused.
+    private int[] xs;
+    private int[] ys;
+    private int[] partners;
+    private int free = NONE;
+    private int used;
+
+    // Points that have each point as partner, as a doubly linked list
+    private int[] reverseHeads;
+    private int[] reverseNext;
+    private int[] reversePrevious;
+
+    // Ids of points with the same coordinates, as a linked list starting at the map
+    private final LongIntHashMap byValue;
+    private int[] sameNext;
+
+    // Quadtree nodes. Each one covers a square of side 2^level with its corner at (nodeXs, nodeYs), in coordinates
+    // offset to be unsigned. Internal nodes have 4 children, and leaves keep their points in a doubly linked list.
+    // Counts are the points in the whole subtree. Removed nodes are linked through heads.
+    private long[] nodeXs;
+    private long[] nodeYs;
+    private int[] levels;
+    private int[] children;
+    private int[] heads;
+    private int[] counts;
+    private int freeNode = NONE;
+    private int usedNodes;
+    private int[] nextInLeaf;
+    private int[] previousInLeaf;
+
+    // Best point of the current nearest neighbour search
+    private int nearest;
+    private long nearestDistance;
+
+    // Points by the distance to their partner
+    private final IndexedLongHeap pairs;
+
+    private int size;
+    private long iterations;
+    private long time;
+
+    public ClosestPairIndex() {
+        this(16);
+    }
+
+    public ClosestPairIndex(int capacity) {
+        capacity = Math.max(4, capacity);
+        xs = new int[capacity];
+        ys = new int[capacity];
+        partners = new int[capacity];
+        reverseHeads = new int[capacity];
+        reverseNext = new int[capacity];
+        reversePrevious = new int[capacity];
+        sameNext = new int[capacity];
+        nextInLeaf = new int[capacity];
+        previousInLeaf = new int[capacity];
+        byValue = new LongIntHashMap(capacity);
+        pairs = new IndexedLongHeap(capacity);
+        int nodes = Math.max(4, capacity / 2);
+        nodeXs = new long[nodes];
+        nodeYs = new long[nodes];
+        levels = new int[nodes];
+        children = new int[4 * nodes];
+        heads = new int[nodes];
+        counts = new int[nodes];
+        allocateNode(0, 0, ROOT_LEVEL);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(Point2D point) {
+        return byValue.get(PointKeys.pack(point.getX(), point.getY())) != LongIntHashMap.MISSING;
+    }
+
+    /**
+     * Current closest pair. Iterations and time are the totals of all updates so far.
+    */
+    public ClosestPairResult closestPair() {
+        if (pairs.isEmpty())
+            return new ClosestPairResult(null, null, Long.MAX_VALUE, iterations, time);
+
+        int id = pairs.peek();
+        int partner = partners[id];
+
+        return new ClosestPairResult(new Point2D(xs[id], ys[id]), new Point2D(xs[partner], ys[partner]), pairs.priority(id), iterations, time);
+    }
+
+    /**
+     * Adds a point. The same point can be added more than once.
+    */
+    public void add(Point2D point) {
+        long start = System.nanoTime();
+        add(point.getX(), point.getY());
+        time += System.nanoTime() - start;
+    }
+
+    public void add(Collection<Point2D> points) {
+        long start = System.nanoTime();
+
+        for (Point2D point : points)
+            add(point.getX(), point.getY());
+
+        time += System.nanoTime() - start;
+    }
+
+    public void add(PointSet points) {
+        long start = System.nanoTime();
+
+        for (int i = 0; i < points.size(); i++)
+            add(points.getX(i), points.getY(i));
+
+        time += System.nanoTime() - start;
+    }
+
+    /**
+     * Removes one copy of a point. Returns false if the point is not in the index.
+    */
+    public boolean remove(Point2D point) {
+        long start = System.nanoTime();
+        boolean removed = remove(point.getX(), point.getY());
+        time += System.nanoTime() - start;
+
+        return removed;
+    }
+
+    /**
+     * Removes one copy of each point. Returns the number of points that were removed.
+    */
+    public int remove(Collection<Point2D> points) {
+        long start = System.nanoTime();
+        int removed = 0;
+
+        for (Point2D point : points) {
+            if (remove(point.getX(), point.getY()))
+                removed++;
+        }
+
+        time += System.nanoTime() - start;
+
+        return removed;
+    }
+
+    private void add(int x, int y) {
+        int id = allocate();
+        xs[id] = x;
+        ys[id] = y;
+
+        insert(id);
+        int nearest = nearest(id);
+        long value = PointKeys.pack(x, y);
+        sameNext[id] = byValue.put(value, id);
+        size++;
+
+        if (nearest != NONE)
+            link(id, nearest);
+    }
+
+    private boolean remove(int x, int y) {
+        long value = PointKeys.pack(x, y);
+        int id = byValue.get(value);
+
+        if (id == LongIntHashMap.MISSING)
+            return false;
+
+        // Removes the point from the set and from the heap
+        if (sameNext[id] == LongIntHashMap.MISSING)
+            byValue.remove(value);
+        else
+            byValue.put(value, sameNext[id]);
+
+        delete(id);
+        size--;
+        unlink(id);
+
+        // Points that had it as partner look for a new one
+        int other = reverseHeads[id];
+
+        while (other != NONE) {
+            int following = reverseNext[other];
+            unlink(other);
+            int nearest = nearest(other);
+
+            if (nearest != NONE)
+                link(other, nearest);
+
+            other = following;
+        }
+
+        partners[id] = free;
+        free = id;
+
+        return true;
+    }
+
+    /**
+     * Finds the nearest other point to a point in the set. Returns NONE if there are no other points.
+    */
+    private int nearest(int id) {
+        nearest = NONE;
+        nearestDistance = Long.MAX_VALUE;
+        search(ROOT, id, unsigned(xs[id]), unsigned(ys[id]));
+
+        return nearest;
+    }
+
+    /**
+     * Looks for points closer than the best one in the subtree of a node, starting with the child that has the point
+    */
+    private void search(int node, int id, long x, long y) {
+        // Skips squares that are not closer than the best distance
+        long size = 1L << levels[node];
+        long dx = Math.max(0, Math.max(nodeXs[node] - x, x - (nodeXs[node] + size - 1)));
+        long dy = Math.max(0, Math.max(nodeYs[node] - y, y - (nodeYs[node] + size - 1)));
+
+        if (dx > MAX_DELTA || dy > MAX_DELTA || dx*dx + dy*dy >= nearestDistance)
+            return;
+
+        if (children[4 * node] == NONE) {
+            for (int other = heads[node]; other != NONE; other = nextInLeaf[other]) {
+                if (other == id)
+                    continue;
+
+                long px = (long) xs[other] - xs[id];
+                long py = (long) ys[other] - ys[id];
+                long distance = px*px + py*py;
+                iterations++;
+
+                if (distance < nearestDistance) {
+                    nearestDistance = distance;
+                    nearest = other;
+                }
+            }
+
+            return;
+        }
+
+        int quadrant = quadrant(node, x, y);
+
+        for (int i = 0; i < 4; i++)
+            search(children[4 * node + (quadrant ^ i)], id, x, y);
+    }
+
+    /**
+     * Adds a point to the leaf of the quadtree that covers it, splitting the leaf if it gets too many points
+    */
+    private void insert(int id) {
+        long x = unsigned(xs[id]);
+        long y = unsigned(ys[id]);
+        int node = ROOT;
+        counts[node]++;
+
+        while (children[4 * node] != NONE) {
+            node = children[4 * node + quadrant(node, x, y)];
+            counts[node]++;
+        }
+
+        push(node, id);
+
+        if (counts[node] > LEAF_SIZE && levels[node] > 0)
+            split(node);
+    }
+
+    /**
+     * Removes a point from the quadtree, and merges the highest subtree on its path that has few points left into one leaf
+    */
+    private void delete(int id) {
+        long x = unsigned(xs[id]);
+        long y = unsigned(ys[id]);
+        int node = ROOT;
+        int merged = NONE;
+        counts[node]--;
+
+        while (children[4 * node] != NONE) {
+            if (merged == NONE && counts[node] <= LEAF_SIZE / 2)
+                merged = node;
+
+            node = children[4 * node + quadrant(node, x, y)];
+            counts[node]--;
+        }
+
+        // Unlinks the point from its leaf
+        if (previousInLeaf[id] != NONE)
+            nextInLeaf[previousInLeaf[id]] = nextInLeaf[id];
+        else
+            heads[node] = nextInLeaf[id];
+
+        if (nextInLeaf[id] != NONE)
+            previousInLeaf[nextInLeaf[id]] = previousInLeaf[id];
+
+        if (merged != NONE) {
+            for (int i = 0; i < 4; i++)
+                collect(children[4 * merged + i], merged);
+
+            children[4 * merged] = NONE;
+        }
+    }
+
+    /**
+     * Moves the points of a leaf to 4 new children, and splits the children that still have too many
+    */
+    private void split(int node) {
+        int level = levels[node] - 1;
+
+        for (int i = 0; i < 4; i++) {
+            int child = allocateNode(nodeXs[node] + ((long) (i & 1) << level), nodeYs[node] + ((long) (i >> 1) << level), level);
+            children[4 * node + i] = child;
+        }
+
+        int id = heads[node];
+        heads[node] = NONE;
+
+        while (id != NONE) {
+            int next = nextInLeaf[id];
+            int child = children[4 * node + quadrant(node, unsigned(xs[id]), unsigned(ys[id]))];
+            push(child, id);
+            counts[child]++;
+            id = next;
+        }
+
+        for (int i = 0; i < 4; i++) {
+            int child = children[4 * node + i];
+
+            if (counts[child] > LEAF_SIZE && level > 0)
+                split(child);
+        }
+    }
+
+    /**
+     * Moves all points in the subtree of a node to a leaf and frees the nodes of the subtree
+    */
+    private void collect(int node, int leaf) {
+        if (children[4 * node] == NONE) {
+            int id = heads[node];
+
+            while (id != NONE) {
+                int next = nextInLeaf[id];
+                push(leaf, id);
+                id = next;
+            }
+        } else {
+            for (int i = 0; i < 4; i++)
+                collect(children[4 * node + i], leaf);
+        }
+
+        heads[node] = freeNode;
+        freeNode = node;
+    }
+
+    private void push(int leaf, int id) {
+        previousInLeaf[id] = NONE;
+        nextInLeaf[id] = heads[leaf];
+
+        if (heads[leaf] != NONE)
+            previousInLeaf[heads[leaf]] = id;
+
+        heads[leaf] = id;
+    }
+
+    /**
+     * Child of a node whose square has the given coordinates: bit 0 is set for the right half and bit 1 for the upper half
+    */
+    private int quadrant(int node, long x, long y) {
+        int half = levels[node] - 1;
+
+        return (int) ((x - nodeXs[node]) >>> half & 1) | (int) ((y - nodeYs[node]) >>> half & 1) << 1;
+    }
+
+    private int allocateNode(long x, long y, int level) {
+        int node;
+
+        if (freeNode != NONE) {
+            node = freeNode;
+            freeNode = heads[node];
+        } else {
+            if (usedNodes == levels.length) {
+                int capacity = usedNodes + (usedNodes >> 1);
+                nodeXs = Arrays.copyOf(nodeXs, capacity);
+                nodeYs = Arrays.copyOf(nodeYs, capacity);
+                levels = Arrays.copyOf(levels, capacity);
+                children = Arrays.copyOf(children, 4 * capacity);
+                heads = Arrays.copyOf(heads, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+            }
+
+            node = usedNodes++;
+        }
+
+        nodeXs[node] = x;
+        nodeYs[node] = y;
+        levels[node] = level;
+        children[4 * node] = NONE;
+        heads[node] = NONE;
+        counts[node] = 0;
+
+        return node;
+    }
+
+    /**
+     * Sets the partner of a point and adds it to the heap and to the reverse list of the partner
+    */
+    private void link(int id, int partner) {
+        partners[id] = partner;
+        reversePrevious[id] = NONE;
+        reverseNext[id] = reverseHeads[partner];
+
+        if (reverseHeads[partner] != NONE)
+            reversePrevious[reverseHeads[partner]] = id;
+
+        reverseHeads[partner] = id;
+        long dx = (long) xs[partner] - xs[id];
+        long dy = (long) ys[partner] - ys[id];
+        pairs.put(id, dx*dx + dy*dy);
+    }
+
+    /**
+     * Removes a point from the heap and from the reverse list of its partner
+    */
+    private void unlink(int id) {
+        if (!pairs.remove(id))
+            return;
+
+        int partner = partners[id];
+
+        if (reversePrevious[id] != NONE)
+            reverseNext[reversePrevious[id]] = reverseNext[id];
+        else
+            reverseHeads[partner] = reverseNext[id];
+
+        if (reverseNext[id] != NONE)
+            reversePrevious[reverseNext[id]] = reversePrevious[id];
+    }
+
+    /**
+     * Coordinate offset so that all ints are in [0, 2^32)
+    */
+    private static long unsigned(int value) {
+        return (long) value - Integer.MIN_VALUE;
+    }
+
+    private int allocate() {
+        int id;
+
+        if (free != NONE) {
+            id = free;
+            free = partners[id];
+        } else {
+            if (used == xs.length) {
+                int capacity = used + (used >> 1);
+                xs = Arrays.copyOf(xs, capacity);
+                ys = Arrays.copyOf(ys, capacity);
+                partners = Arrays.copyOf(partners, capacity);
+                reverseHeads = Arrays.copyOf(reverseHeads, capacity);
+                reverseNext = Arrays.copyOf(reverseNext, capacity);
+                reversePrevious = Arrays.copyOf(reversePrevious, capacity);
+                sameNext = Arrays.copyOf(sameNext, capacity);
+                nextInLeaf = Arrays.copyOf(nextInLeaf, capacity);
+                previousInLeaf = Arrays.copyOf(previousInLeaf, capacity);
+            }
+
+            id = used++;
+        }
+
+        reverseHeads[id] = NONE;
+
+        return id;
+    }
+}
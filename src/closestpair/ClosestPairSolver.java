@@ -0,0 +1,87 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+import closestpair.result.ClosestPairResult;
+import java.util.ArrayList;
+
+/**
+ * Strategy for finding the closest pair of points
+*/
+public interface ClosestPairSolver {
+    /**
+     * Finds the closest pair of points in a point set. Solvers that need the points sorted by x sort them in place first,
+     * so the indices of the result refer to the set as it is after the call.
+    */
+    ClosestPairResult closestPair(PointSet points);
+
+    /**
+     * Name used for the output files of the benchmark
+    */
+    String getName();
+
+    /**
+     * Finds the closest pair of points in a list of points. The list is not modified and the result has the original point objects.
+    */
+    default ClosestPairResult closestPair(ArrayList<Point2D> points) {
+        ClosestPairResult result = closestPair(PointSet.from(points));
+
+        if (result.getPoint1() == null || result.getIndex1() < 0)
+            return result;
+
+        // The solver may have sorted its copy, so the points are looked up by value
+        Point2D point1 = result.getPoint1();
+        Point2D point2 = result.getPoint2();
+        int index1 = points.indexOf(point1);
+        int index2 = index1;
+
+        for (int i = 0; i < points.size() && index2 == index1; i++) {
+            if (i != index1 && points.get(i).equals(point2))
+                index2 = i;
+        }
+
+        return new ClosestPairResult(points.get(index1), points.get(index2), index1, index2, result.getDistance(), result.getIterations(), result.getTime());
+    }
+
+    /**
+     * Compares all pairs of points with SpacePartition2D.closestPair
+    */
+    static ClosestPairSolver bruteForce() {
+        return new ClosestPairSolver() {
+            @Override
+            public ClosestPairResult closestPair(PointSet points) {
+                return SpacePartition2D.closestPair(points, 0, points.size());
+            }
+
+            @Override
+            public String getName() {
+                return "brute_force";
+            }
+        };
+    }
+
+    /**
+     * Recursive algorithm of ClosestPair.closestPair, or brute force for sets below the threshold of the current tuning
+    */
+    static ClosestPairSolver recursive() {
+        return new ClosestPairSolver() {
+            @Override
+            public ClosestPairResult closestPair(PointSet points) {
+                // Small sets are faster to solve by brute force than to sort
+                if (points.size() <= Tuning.get().getBruteForceThreshold())
+                    return SpacePartition2D.closestPair(points, 0, points.size());
+
+                Point2D.sort(points);
+
+                return ClosestPair.closestPair(points);
+            }
+
+            @Override
+            public String getName() {
+                return "recursive";
+            }
+        };
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+import closestpair.result.ExecutionResult;
+import closestpair.result.PairsResult;
+import closestpair.util.PairHeap;
+import java.util.Arrays;
+
+/**
+ * Queries that find many pairs of points with the recursive algorithm: the k closest pairs, and all pairs within a distance.
+ * Like ClosestPair.closestPair, both halves are solved and merged by y, and only the points in the strip around the
+ * dividing line are compared across it. The width of the strip is the distance bound of the query instead of the
+ * minimun distance. The points are sorted by x in place first, and the indices of the pairs refer to the sorted set.
+*/
+public class ClosestPairs {
+    private ClosestPairs() {
+    }
+
+    /**
+     * Finds the k closest pairs of points, sorted by distance
+    */
+    public static PairsResult kClosest(PointSet points, int k) {
+        long startTime = System.nanoTime();
+        Point2D.sort(points);
+        PairHeap heap = new PairHeap(k);
+        Sink sink = new Sink() {
+            @Override
+            long bound() {
+                return heap.bound();
+            }
+
+            @Override
+            void accept(int first, int second, long distance) {
+                heap.offer(first, second, distance);
+            }
+        };
+
+        pairs(points, new Workspace(points.size()), sink);
+        int[] firsts = new int[heap.size()];
+        int[] seconds = new int[heap.size()];
+        long[] distances = new long[heap.size()];
+        int size = heap.drain(firsts, seconds, distances);
+
+        return new PairsResult(firsts, seconds, distances, size, sink.iterations, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Finds all pairs of points whose squared distance is at most the given one
+    */
+    public static PairsResult withinDistance(PointSet points, long squaredDistance) {
+        long startTime = System.nanoTime();
+        PairList list = new PairList();
+        ExecutionResult result = withinDistance(points, squaredDistance, list);
+
+        return new PairsResult(list.firsts, list.seconds, list.distances, list.size, result.getIterations(), System.nanoTime() - startTime);
+    }
+
+    /**
+     * Sends all pairs of points whose squared distance is at most the given one to a consumer as they are found, in no particular order
+    */
+    public static ExecutionResult withinDistance(PointSet points, long squaredDistance, PairConsumer consumer) {
+        long startTime = System.nanoTime();
+        Point2D.sort(points);
+        Sink sink = new Sink() {
+            @Override
+            long bound() {
+                return squaredDistance;
+            }
+
+            @Override
+            void accept(int first, int second, long distance) {
+                if (distance <= squaredDistance)
+                    consumer.accept(first, second, distance);
+            }
+        };
+
+        pairs(points, new Workspace(points.size()), sink);
+
+        return new ExecutionResult(sink.iterations, System.nanoTime() - startTime);
+    }
+
+    private static void pairs(PointSet points, Workspace workspace, Sink sink) {
+        if (points.size() > 0)
+            pairs(points.getXs(), points.getYs(), workspace, 0, points.size(), Tuning.get().getLeafSize(), sink);
+    }
+
+    /**
+     * Sends every pair of a sublist sorted by x that is within the bound of the sink to it. End is exclusive.
+     * When it returns, the sublist has also been written to the workspace sorted by y.
+    */
+    private static void pairs(int[] xs, int[] ys, Workspace workspace, int start, int end, int leafSize, Sink sink) {
+        sink.iterations++;
+
+        // Sublists with up to leafSize points compare all their pairs
+        if (end - start <= leafSize) {
+            for (int i = start; i < end; i++) {
+                for (int j = i + 1; j < end; j++) {
+                    long dx = (long) xs[j] - xs[i];
+                    long dy = (long) ys[j] - ys[i];
+                    sink.iterations++;
+                    sink.accept(i, j, dx*dx + dy*dy);
+                }
+            }
+
+            // Sorts the sublist by y
+            int[] yxs = workspace.xs;
+            int[] yys = workspace.ys;
+            int[] indices = workspace.indices;
+
+            for (int i = start; i < end; i++) {
+                int k = i;
+
+                while (k > start && yys[k - 1] > ys[i]) {
+                    yxs[k] = yxs[k - 1];
+                    yys[k] = yys[k - 1];
+                    indices[k] = indices[k - 1];
+                    k--;
+                }
+
+                yxs[k] = xs[i];
+                yys[k] = ys[i];
+                indices[k] = i;
+            }
+
+            return;
+        }
+
+        int mid = start + (end - start) / 2;
+        int midX = xs[mid];
+        pairs(xs, ys, workspace, start, mid, leafSize, sink);
+        pairs(xs, ys, workspace, mid, end, leafSize, sink);
+        ClosestPair.merge(workspace, start, mid, end);
+
+        int[] yxs = workspace.xs;
+        int[] yys = workspace.ys;
+        int[] indices = workspace.indices;
+        int[] stripXs = workspace.bufferXs;
+        int[] stripYs = workspace.bufferYs;
+        int[] stripIndices = workspace.bufferIndices;
+
+        // Finds the points whose gap in x to the dividing line is within the bound, keeping their order by y
+        long bound = sink.bound();
+        int stripEnd = start;
+
+        for (int i = start; i < end; i++) {
+            long dx = (long) yxs[i] - midX;
+
+            if (dx * dx <= bound) {
+                stripXs[stripEnd] = yxs[i];
+                stripYs[stripEnd] = yys[i];
+                stripIndices[stripEnd] = indices[i];
+                stripEnd++;
+            }
+        }
+
+        // Compares the pairs across the dividing line whose gap in y is within the bound. Pairs on the same side were already found.
+        for (int i = start; i < stripEnd - 1; i++) {
+            long x = stripXs[i];
+            long y = stripYs[i];
+            boolean left = stripIndices[i] < mid;
+
+            for (int j = i + 1; j < stripEnd; j++) {
+                long dy = stripYs[j] - y;
+
+                if (dy * dy > sink.bound())
+                    break;
+
+                if (left == stripIndices[j] < mid)
+                    continue;
+
+                long dx = stripXs[j] - x;
+                sink.iterations++;
+
+                if (stripIndices[i] < stripIndices[j])
+                    sink.accept(stripIndices[i], stripIndices[j], dx*dx + dy*dy);
+                else
+                    sink.accept(stripIndices[j], stripIndices[i], dx*dx + dy*dy);
+            }
+        }
+    }
+
+    /**
+     * Receives pairs and sets how far apart pairs can be to still be of interest
+    */
+    private abstract static class Sink {
+        long iterations;
+
+        abstract long bound();
+
+        abstract void accept(int first, int second, long distance);
+    }
+
+    /**
+     * Growable parallel arrays of pairs
+    */
+    private static class PairList implements PairConsumer {
+        int[] firsts = new int[16];
+        int[] seconds = new int[16];
+        long[] distances = new long[16];
+        int size;
+
+        @Override
+        public void accept(int first, int second, long distance) {
+            if (size == firsts.length) {
+                int capacity = size + (size >> 1);
+                firsts = Arrays.copyOf(firsts, capacity);
+                seconds = Arrays.copyOf(seconds, capacity);
+                distances = Arrays.copyOf(distances, capacity);
+            }
+
+            firsts[size] = first;
+            seconds[size] = second;
+            distances[size] = distance;
+            size++;
+        }
+    }
+}
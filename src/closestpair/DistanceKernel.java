@@ -0,0 +1,24 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+/**
+ * Inner loop of the brute force algorithm: finds the point of a range nearest to some coordinates.
+ * The kernel used by the algorithms is chosen once with -Dclosestpair.kernel=scalar|vector|auto. The vector kernel is
+ * built apart from the project with "ant vector-compile" and is only used when it is on the classpath and the
+ * jdk.incubator.vector module is loaded. Otherwise the scalar kernel is used.
+*/
+public interface DistanceKernel {
+    DistanceKernel SCALAR = new ScalarDistanceKernel();
+    DistanceKernel DEFAULT = Kernels.load(System.getProperty("closestpair.kernel", "auto"));
+
+    /**
+     * Position of the point in a range of coordinates whose squared distance to (x, y) is the smallest and is strictly smaller
+     * than the bound, or -1 if there is none. The first such position wins ties. End is exclusive.
+    */
+    int nearest(int[] xs, int[] ys, int start, int end, long x, long y, long bound);
+
+    String getName();
+}
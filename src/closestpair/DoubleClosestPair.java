@@ -0,0 +1,223 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+import closestpair.metrics.Metrics;
+import closestpair.result.DoubleClosestPairResult;
+
+/**
+ * Closest pair of points with double coordinates in any number of dimensions.
+ * The recursive algorithm is the one of ClosestPair: the points are split in half by their first coordinate, and the
+ * points near the dividing plane are compared in the order of their second coordinate. In 2D it takes O(n log n) time.
+ * With more dimensions the strip comparisons are still correct but their number is no longer bounded by a constant,
+ * so the time depends on how the points are spread.
+ * Squared distances too large for a double are infinite. If every pair is that far apart, the first pair compared is returned.
+*/
+public class DoubleClosestPair {
+    /**
+     * Finds the closest pair of a point set, sorting it in place by its first coordinate first.
+     * The indices of the result refer to the set as it is after the call.
+    */
+    public static DoubleClosestPairResult closestPair(DoublePointSet points) {
+        return closestPair(points, Tuning.get().getLeafSize());
+    }
+
+    /**
+     * Finds the closest pair of a point set, comparing all points of sublists with up to leafSize points
+    */
+    public static DoubleClosestPairResult closestPair(DoublePointSet points, int leafSize) {
+        long startTime = System.nanoTime();
+        long allocated = Metrics.ENABLED ? Metrics.allocatedBytes() : 0;
+        points.sort();
+        Search search = new Search(points);
+        search.closestPair(0, points.size(), Math.max(2, leafSize));
+        long time = System.nanoTime() - startTime;
+
+        if (Metrics.ENABLED)
+            Metrics.run("double", points.size(), search.iterations, ClosestPair.depth(points.size(), Math.max(2, leafSize)), allocated, time);
+
+        return search.result(points, time);
+    }
+
+    /**
+     * Finds the closest pair of a point set by comparing all pairs of points. The set is not modified.
+    */
+    public static DoubleClosestPairResult bruteForce(DoublePointSet points) {
+        long startTime = System.nanoTime();
+        Search search = new Search(points);
+
+        for (int i = 0; i < points.size() - 1; i++) {
+            for (int j = i + 1; j < points.size(); j++)
+                search.compare(i, j);
+        }
+
+        return search.result(points, System.nanoTime() - startTime);
+    }
+
+    /**
+     * State of one search: the closest pair so far and the scratch arrays of the recursion
+    */
+    private static class Search {
+        private final double[] coordinates;
+        private final int dimensions;
+
+        // Coordinate used to order the points near the dividing plane. Points with 1 dimension only have the first one.
+        private final int axis;
+
+        // Indices of the points of the current sublist sorted by the second coordinate, and a buffer for merging and for the strip
+        private final int[] order;
+        private final int[] buffer;
+
+        private int first = -1;
+        private int second = -1;
+        private double distance = Double.POSITIVE_INFINITY;
+        private long iterations;
+
+        Search(DoublePointSet points) {
+            this.coordinates = points.getCoordinates();
+            this.dimensions = points.dimensions();
+            this.axis = dimensions > 1 ? 1 : 0;
+            this.order = new int[points.size()];
+            this.buffer = new int[points.size()];
+        }
+
+        /**
+         * Finds the closest pair in a sublist sorted by the first coordinate, and writes its indices to the order array sorted by the second
+        */
+        void closestPair(int start, int end, int leafSize) {
+            iterations++;
+
+            // If the sublist fits in a leaf, compares all of its points and sorts them by the second coordinate
+            if (end - start <= leafSize) {
+                for (int i = start; i < end; i++) {
+                    for (int j = i + 1; j < end; j++)
+                        compare(i, j);
+
+                    double key = coordinates[i * dimensions + axis];
+                    int k = i;
+
+                    while (k > start && coordinates[order[k - 1] * dimensions + axis] > key) {
+                        order[k] = order[k - 1];
+                        k--;
+                    }
+
+                    order[k] = i;
+                }
+
+                return;
+            }
+
+            // Splits the sublist in half and solves both halves independently
+            int mid = start + (end - start) / 2;
+            closestPair(start, mid, leafSize);
+            double leftDistance = distance;
+            int leftFirst = first;
+            int leftSecond = second;
+            distance = Double.POSITIVE_INFINITY;
+            closestPair(mid, end, leafSize);
+
+            // The left half keeps the pair on ties
+            if (leftDistance <= distance) {
+                distance = leftDistance;
+                first = leftFirst;
+                second = leftSecond;
+            }
+
+            combine(start, mid, end);
+        }
+
+        /**
+         * Merges both halves of a sublist by the second coordinate and looks for a closer pair across the dividing plane
+        */
+        private void combine(int start, int mid, int end) {
+            int i = start;
+            int j = mid;
+            int k = start;
+
+            while (i < mid && j < end)
+                buffer[k++] = coordinates[order[j] * dimensions + axis] < coordinates[order[i] * dimensions + axis] ? order[j++] : order[i++];
+
+            while (i < mid)
+                buffer[k++] = order[i++];
+
+            while (j < end)
+                buffer[k++] = order[j++];
+
+            System.arraycopy(buffer, start, order, start, end - start);
+
+            // Finds all points that are closer to the dividing plane than the minimun distance. They keep their order.
+            double midValue = coordinates[mid * dimensions];
+            int stripEnd = start;
+
+            for (i = start; i < end; i++) {
+                double d = coordinates[order[i] * dimensions] - midValue;
+
+                if (d * d < distance)
+                    buffer[stripEnd++] = order[i];
+            }
+
+            // Each point is compared to the following points that are closer in the second coordinate than the minimun distance
+            for (i = start; i < stripEnd - 1; i++) {
+                double value = coordinates[buffer[i] * dimensions + axis];
+
+                for (j = i + 1; j < stripEnd; j++) {
+                    double d = coordinates[buffer[j] * dimensions + axis] - value;
+
+                    if (d * d >= distance)
+                        break;
+
+                    // With more dimensions, pairs that are already too far apart in the first 2 coordinates are skipped
+                    if (dimensions > 2) {
+                        double d0 = coordinates[buffer[j] * dimensions] - coordinates[buffer[i] * dimensions];
+
+                        if (d0 * d0 + d * d >= distance)
+                            continue;
+                    }
+
+                    // Pairs are kept in the order of the point set
+                    if (buffer[i] < buffer[j])
+                        compare(buffer[i], buffer[j]);
+                    else
+                        compare(buffer[j], buffer[i]);
+                }
+            }
+        }
+
+        /**
+         * Replaces the closest pair if 2 points are strictly closer. With more than 3 dimensions the sum stops once it reaches the minimun distance.
+        */
+        void compare(int index1, int index2) {
+            iterations++;
+            double d;
+
+            if (dimensions <= 3) {
+                d = DoublePointSet.distance(coordinates, dimensions, index1, index2);
+            } else {
+                int a = index1 * dimensions;
+                int b = index2 * dimensions;
+                d = 0;
+
+                for (int i = 0; i < dimensions && d < distance; i++) {
+                    double delta = coordinates[b + i] - coordinates[a + i];
+                    d += delta * delta;
+                }
+            }
+
+            // The first pair is kept even if its distance overflows to infinity, so that there is always a pair
+            if (d < distance || first < 0) {
+                distance = d;
+                first = index1;
+                second = index2;
+            }
+        }
+
+        DoubleClosestPairResult result(DoublePointSet points, long time) {
+            if (first < 0)
+                return new DoubleClosestPairResult(null, null, -1, -1, distance, iterations, time);
+
+            return new DoubleClosestPairResult(points.get(first), points.get(second), first, second, distance, iterations, time);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+import java.util.Arrays;
+
+/**
+ * A set of points with any number of double coordinates, stored one point after the other in a single array.
+ * Coordinate i of point p is at p * dimensions + i.
+*/
+public class DoublePointSet {
+    private final int dimensions;
+    private double[] coordinates;
+    private int size;
+
+    // Whether the points are known to be sorted by their first coordinate
+    private boolean sorted;
+
+    public DoublePointSet(int dimensions, int capacity) {
+        if (dimensions < 1)
+            throw new IllegalArgumentException("Points must have at least 1 dimension");
+
+        this.dimensions = dimensions;
+        this.coordinates = new double[dimensions * capacity];
+    }
+
+    /**
+     * Wraps the given coordinate array without copying it
+    */
+    public DoublePointSet(int dimensions, double[] coordinates, int size) {
+        if (dimensions < 1)
+            throw new IllegalArgumentException("Points must have at least 1 dimension");
+
+        if (coordinates.length < (long) dimensions * size)
+            throw new IllegalArgumentException("Coordinate array is smaller than the size");
+
+        this.dimensions = dimensions;
+        this.coordinates = coordinates;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int dimensions() {
+        return dimensions;
+    }
+
+    public double get(int index, int axis) {
+        return coordinates[index * dimensions + axis];
+    }
+
+    /**
+     * Copies the coordinates of the point at the given index
+    */
+    public double[] get(int index) {
+        return Arrays.copyOfRange(coordinates, index * dimensions, (index + 1) * dimensions);
+    }
+
+    /**
+     * Backing array of coordinates. Only the first size() * dimensions() values are points.
+    */
+    public double[] getCoordinates() {
+        return coordinates;
+    }
+
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    public void setSorted(boolean sorted) {
+        this.sorted = sorted;
+    }
+
+    /**
+     * Adds a point at the end of the set, growing the array if needed
+    */
+    public void add(double... point) {
+        check(point);
+
+        if ((size + 1) * dimensions > coordinates.length)
+            coordinates = Arrays.copyOf(coordinates, Math.max(16, size + (size >> 1)) * dimensions);
+
+        if (sorted && size > 0 && point[0] < coordinates[(size - 1) * dimensions])
+            sorted = false;
+
+        System.arraycopy(point, 0, coordinates, size * dimensions, dimensions);
+        size++;
+    }
+
+    public void set(int index, double... point) {
+        check(point);
+        sorted = false;
+        System.arraycopy(point, 0, coordinates, index * dimensions, dimensions);
+    }
+
+    /**
+     * Swaps 2 points in the set
+    */
+    public void swap(int index1, int index2) {
+        sorted = false;
+        int a = index1 * dimensions;
+        int b = index2 * dimensions;
+
+        for (int i = 0; i < dimensions; i++) {
+            double temp = coordinates[a + i];
+            coordinates[a + i] = coordinates[b + i];
+            coordinates[b + i] = temp;
+        }
+    }
+
+    /**
+     * Finds the squared euclidean distance between 2 points in the set
+    */
+    public double distance(int index1, int index2) {
+        return distance(coordinates, dimensions, index1, index2);
+    }
+
+    /**
+     * Finds the squared euclidean distance between 2 points of a coordinate array, with unrolled cases for 2 and 3 dimensions
+    */
+    static double distance(double[] coordinates, int dimensions, int index1, int index2) {
+        int a = index1 * dimensions;
+        int b = index2 * dimensions;
+
+        switch (dimensions) {
+            case 2: {
+                double dx = coordinates[b] - coordinates[a];
+                double dy = coordinates[b + 1] - coordinates[a + 1];
+
+                return dx*dx + dy*dy;
+            }
+            case 3: {
+                double dx = coordinates[b] - coordinates[a];
+                double dy = coordinates[b + 1] - coordinates[a + 1];
+                double dz = coordinates[b + 2] - coordinates[a + 2];
+
+                return dx*dx + dy*dy + dz*dz;
+            }
+            default: {
+                double distance = 0;
+
+                for (int i = 0; i < dimensions; i++) {
+                    double d = coordinates[b + i] - coordinates[a + i];
+                    distance += d * d;
+                }
+
+                return distance;
+            }
+        }
+    }
+
+    /**
+     * Sorts the points in place by their first coordinate
+    */
+    public void sort() {
+        if (sorted)
+            return;
+
+        int[] order = new int[size];
+
+        for (int i = 0; i < size; i++)
+            order[i] = i;
+
+        mergeSort(order, new int[size], 0, size);
+
+        // Writes the points in their new order
+        double[] sortedCoordinates = new double[coordinates.length];
+
+        for (int i = 0; i < size; i++)
+            System.arraycopy(coordinates, order[i] * dimensions, sortedCoordinates, i * dimensions, dimensions);
+
+        coordinates = sortedCoordinates;
+        sorted = true;
+    }
+
+    /**
+     * Sorts a range of point indices by their first coordinate. End is exclusive.
+    */
+    private void mergeSort(int[] order, int[] buffer, int start, int end) {
+        // Small ranges are sorted by insertion
+        if (end - start <= 16) {
+            for (int i = start + 1; i < end; i++) {
+                int point = order[i];
+                double key = coordinates[point * dimensions];
+                int j = i;
+
+                while (j > start && coordinates[order[j - 1] * dimensions] > key) {
+                    order[j] = order[j - 1];
+                    j--;
+                }
+
+                order[j] = point;
+            }
+
+            return;
+        }
+
+        int mid = start + (end - start) / 2;
+        mergeSort(order, buffer, start, mid);
+        mergeSort(order, buffer, mid, end);
+        int i = start;
+        int j = mid;
+        int k = start;
+
+        while (i < mid && j < end)
+            buffer[k++] = coordinates[order[j] * dimensions] < coordinates[order[i] * dimensions] ? order[j++] : order[i++];
+
+        while (i < mid)
+            buffer[k++] = order[i++];
+
+        while (j < end)
+            buffer[k++] = order[j++];
+
+        System.arraycopy(buffer, start, order, start, end - start);
+    }
+
+    /**
+     * Creates a copy of the set with its own array
+    */
+    public DoublePointSet copy() {
+        DoublePointSet copy = new DoublePointSet(dimensions, Arrays.copyOf(coordinates, size * dimensions), size);
+        copy.sorted = sorted;
+
+        return copy;
+    }
+
+    /**
+     * Copies a 2D point set, keeping the order of its points
+    */
+    public static DoublePointSet from(PointSet points) {
+        double[] coordinates = new double[2 * points.size()];
+
+        for (int i = 0; i < points.size(); i++) {
+            coordinates[2 * i] = points.getX(i);
+            coordinates[2 * i + 1] = points.getY(i);
+        }
+
+        return new DoublePointSet(2, coordinates, points.size());
+    }
+
+    private void check(double[] point) {
+        if (point.length != dimensions)
+            throw new IllegalArgumentException("Expected " + dimensions + " coordinates, got " + point.length);
+
+        for (double coordinate : point) {
+            if (Double.isNaN(coordinate) || Double.isInfinite(coordinate))
+                throw new IllegalArgumentException("Coordinates must be finite");
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder string = new StringBuilder();
+        string.append("DoublePointSet[ ");
+
+        for (int i = 0; i < size; i++) {
+            string.append("(");
+
+            for (int j = 0; j < dimensions; j++)
+                string.append(j > 0 ? "," : "").append(coordinates[i * dimensions + j]);
+
+            string.append(") ");
+        }
+
+        string.append("]");
+
+        return string.toString();
+    }
+}
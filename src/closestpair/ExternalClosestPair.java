@@ -0,0 +1,393 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+import closestpair.io.PointStream;
+import closestpair.result.ClosestPairResult;
+import closestpair.sort.PointKeys;
+import closestpair.util.IndexedLongHeap;
+import closestpair.util.LongTreeSet;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the closest pair of points in a file that does not fit in memory.
+ * The points are read in blocks that fit in the memory budget, and each block is sorted by x and written to a temporary file
+ * as a sorted run. Then the runs are merged, and the merged points are swept from left to right keeping in memory only the
+ * points whose distance in x to the current one is less than the minimun distance, ordered by y in a tree.
+ * The buffers of a merge take at most half of the budget, so at most that many runs of MIN_RUN_BUFFER bytes are merged at
+ * once. When there are more runs, the oldest ones are merged into longer runs first.
+ * Files that are already sorted by x are swept directly.
+ * The window of the sweep is not limited by the budget, it is as large as the densest strip of the points.
+ * The indices of the result are positions in the points sorted by x, or -1 if they do not fit in an int.
+*/
+public class ExternalClosestPair {
+    // Bytes used by a point while it is read and sorted: its coordinates and its key
+    private static final int BYTES_PER_POINT = 16;
+    private static final int MIN_BLOCK = 1 << 10;
+    private static final int MIN_RUN_BUFFER = 1 << 16;
+    // Most runs open at once, so that the merge does not run out of file descriptors
+    private static final int MAX_FAN_IN = 256;
+
+    private final long memoryBudget;
+    private final File directory;
+
+    /**
+     * Uses a quarter of the maximum heap size as budget and the default temporary directory
+    */
+    public ExternalClosestPair() {
+        this(Runtime.getRuntime().maxMemory() / 4, new File(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Uses up to memoryBudget bytes for reading and merging, and writes sorted runs to the given directory
+    */
+    public ExternalClosestPair(long memoryBudget, File directory) {
+        if (memoryBudget < (long) MIN_BLOCK * BYTES_PER_POINT)
+            throw new IllegalArgumentException("The memory budget must be at least " + MIN_BLOCK * BYTES_PER_POINT + " bytes");
+
+        this.memoryBudget = memoryBudget;
+        this.directory = directory;
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Finds the closest pair of points of a text or binary point file
+    */
+    public ClosestPairResult closestPair(String filename) throws IOException {
+        long startTime = System.nanoTime();
+
+        try (PointStream input = PointStream.open(filename)) {
+            if (input.isSortedByX())
+                return sweep(new StreamSource(input), startTime);
+
+            ArrayList<Path> runs = new ArrayList<>();
+
+            try {
+                spill(input, runs);
+                int fanIn = (int) Math.max(2, Math.min(MAX_FAN_IN, memoryBudget / 2 / MIN_RUN_BUFFER));
+
+                while (runs.size() > fanIn)
+                    merge(runs, fanIn);
+
+                try (RunMerger merger = new RunMerger(runs, memoryBudget / 2 / Math.max(1, runs.size()))) {
+                    return sweep(merger, startTime);
+                }
+            } finally {
+                for (Path run : runs)
+                    Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    /**
+     * Reads the input in blocks, and writes each block sorted by x to a new run
+    */
+    private void spill(PointStream input, ArrayList<Path> runs) throws IOException {
+        int block = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(MIN_BLOCK, memoryBudget / BYTES_PER_POINT));
+        int[] xs = new int[block];
+        int[] ys = new int[block];
+        long[] keys = new long[block];
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MIN_RUN_BUFFER * 16).order(ByteOrder.LITTLE_ENDIAN);
+        int n;
+
+        while ((n = fill(input, xs, ys)) > 0) {
+            for (int i = 0; i < n; i++)
+                keys[i] = PointKeys.pack(xs[i], ys[i]);
+
+            Arrays.sort(keys, 0, n);
+            Path run = Files.createTempFile(directory.toPath(), "closestpair-run", ".bin");
+            runs.add(run);
+
+            try (FileChannel channel = FileChannel.open(run, StandardOpenOption.WRITE)) {
+                for (int i = 0; i < n; i++) {
+                    if (buffer.remaining() < 8)
+                        write(channel, buffer);
+
+                    buffer.putLong(keys[i]);
+                }
+
+                write(channel, buffer);
+            }
+        }
+    }
+
+    /**
+     * Merges the oldest runs into a new run at the end of the list. The new run is in the list before it is written, so
+     * that it is deleted if the merge fails.
+    */
+    private void merge(ArrayList<Path> runs, int fanIn) throws IOException {
+        List<Path> group = new ArrayList<>(runs.subList(0, fanIn));
+        Path run = Files.createTempFile(directory.toPath(), "closestpair-run", ".bin");
+        runs.add(run);
+
+        // The input buffers and the output buffer take half of the budget
+        long bufferSize = memoryBudget / 2 / (fanIn + 1);
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(1 << 26, bufferSize) & ~7).order(ByteOrder.LITTLE_ENDIAN);
+
+        try (RunMerger merger = new RunMerger(group, bufferSize); FileChannel channel = FileChannel.open(run, StandardOpenOption.WRITE)) {
+            while (merger.hasNext()) {
+                if (buffer.remaining() < 8)
+                    write(channel, buffer);
+
+                buffer.putLong(merger.next());
+            }
+
+            write(channel, buffer);
+        }
+
+        for (Path merged : group)
+            Files.deleteIfExists(merged);
+
+        runs.subList(0, fanIn).clear();
+    }
+
+    private static int fill(PointStream input, int[] xs, int[] ys) throws IOException {
+        int n = 0;
+        int read;
+
+        while (n < xs.length && (read = input.read(xs, ys, n, xs.length - n)) > 0)
+            n += read;
+
+        return n;
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+
+        buffer.clear();
+    }
+
+    /**
+     * Sweeps points sorted by x, keeping the points closer in x to the current one than the minimun distance ordered by y
+    */
+    private static ClosestPairResult sweep(KeySource source, long startTime) throws IOException {
+        // Window of points in a ring buffer, from the oldest point still in it up to the last point read
+        int capacity = 1 << 10;
+        int[] xs = new int[capacity];
+        int[] ys = new int[capacity];
+        long head = 0;
+        long count = 0;
+
+        // Points of the window by y, as y in the high half and position in the ring buffer in the low half
+        LongTreeSet byY = new LongTreeSet(capacity);
+        long minimunDistance = Long.MAX_VALUE;
+        long first = -1;
+        long second = -1;
+        int x1 = 0, y1 = 0, x2 = 0, y2 = 0;
+        long iterations = 0;
+
+        while (minimunDistance > 0 && source.hasNext()) {
+            long key = source.next();
+            int x = PointKeys.unpackX(key);
+            int y = PointKeys.unpackY(key);
+            iterations++;
+
+            // Removes the points that are too far in x to be closer than the minimun distance
+            while (head < count) {
+                int slot = (int) head & (capacity - 1);
+                long dx = (long) x - xs[slot];
+
+                if (dx * dx < minimunDistance)
+                    break;
+
+                byY.remove((long) ys[slot] << 32 | slot);
+                head++;
+            }
+
+            // Compares the point with those of the window that are closer in y than the minimun distance
+            long side = minimunDistance == Long.MAX_VALUE ? Long.MAX_VALUE : GridClosestPair.side(minimunDistance);
+            long low = Math.max(Integer.MIN_VALUE, y - Math.min(side, 1L << 32));
+            long high = Math.min(Integer.MAX_VALUE, y + Math.min(side, 1L << 32));
+            int node = byY.ceiling(low << 32);
+
+            while (node != LongTreeSet.NIL) {
+                long windowKey = byY.key(node);
+
+                if ((windowKey >> 32) > high)
+                    break;
+
+                int slot = (int) windowKey;
+                long dx = (long) x - xs[slot];
+                long dy = (long) y - ys[slot];
+                long distance = dx*dx + dy*dy;
+                iterations++;
+
+                if (distance < minimunDistance) {
+                    minimunDistance = distance;
+                    first = head + ((slot - head) & (capacity - 1));
+                    second = count;
+                    x1 = xs[slot];
+                    y1 = ys[slot];
+                    x2 = x;
+                    y2 = y;
+                }
+
+                node = byY.higher(windowKey);
+            }
+
+            // Grows the ring buffer if the window fills it. Positions change, so the tree is rebuilt.
+            if (count - head == capacity) {
+                int[] newXs = new int[capacity * 2];
+                int[] newYs = new int[capacity * 2];
+                byY.clear();
+
+                for (long i = head; i < count; i++) {
+                    int slot = (int) i & (capacity - 1);
+                    int newSlot = (int) i & (2 * capacity - 1);
+                    newXs[newSlot] = xs[slot];
+                    newYs[newSlot] = ys[slot];
+                    byY.add((long) ys[slot] << 32 | newSlot);
+                }
+
+                xs = newXs;
+                ys = newYs;
+                capacity *= 2;
+            }
+
+            int slot = (int) count & (capacity - 1);
+            xs[slot] = x;
+            ys[slot] = y;
+            byY.add((long) y << 32 | slot);
+            count++;
+        }
+
+        long time = System.nanoTime() - startTime;
+
+        if (first < 0)
+            return new ClosestPairResult(null, null, minimunDistance, iterations, time);
+
+        return new ClosestPairResult(new Point2D(x1, y1), new Point2D(x2, y2), index(first), index(second), minimunDistance, iterations, time);
+    }
+
+    private static int index(long position) {
+        return position <= Integer.MAX_VALUE ? (int) position : -1;
+    }
+
+    /**
+     * Point keys in order of x
+    */
+    private interface KeySource {
+        boolean hasNext() throws IOException;
+
+        long next() throws IOException;
+    }
+
+    /**
+     * Points of a file that is sorted by x, read in blocks
+    */
+    private static class StreamSource implements KeySource {
+        private final PointStream input;
+        private final int[] xs = new int[1 << 14];
+        private final int[] ys = new int[1 << 14];
+        private int position;
+        private int size;
+
+        StreamSource(PointStream input) {
+            this.input = input;
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            if (position == size) {
+                size = input.read(xs, ys, 0, xs.length);
+                position = 0;
+            }
+
+            return position < size;
+        }
+
+        @Override
+        public long next() {
+            long key = PointKeys.pack(xs[position], ys[position]);
+            position++;
+
+            return key;
+        }
+    }
+
+    /**
+     * Merges sorted runs, taking the smallest key at the head of any run each time
+    */
+    private static class RunMerger implements KeySource, AutoCloseable {
+        private final FileChannel[] channels;
+        private final ByteBuffer[] buffers;
+        private final IndexedLongHeap heads;
+
+        RunMerger(List<Path> runs, long bufferSize) throws IOException {
+            int size = (int) Math.min(1 << 26, bufferSize) & ~7;
+            channels = new FileChannel[runs.size()];
+            buffers = new ByteBuffer[runs.size()];
+            heads = new IndexedLongHeap(runs.size());
+
+            for (int i = 0; i < runs.size(); i++) {
+                channels[i] = FileChannel.open(runs.get(i), StandardOpenOption.READ);
+                buffers[i] = ByteBuffer.allocateDirect(size).order(ByteOrder.LITTLE_ENDIAN);
+                buffers[i].limit(0);
+                advance(i);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public long next() throws IOException {
+            int run = heads.peek();
+            long key = heads.priority(run);
+            advance(run);
+
+            return key;
+        }
+
+        /**
+         * Puts the next key of a run in the heap, or removes the run if it has no more keys
+        */
+        private void advance(int run) throws IOException {
+            ByteBuffer buffer = buffers[run];
+
+            if (buffer.remaining() < 8) {
+                buffer.compact();
+
+                while (buffer.hasRemaining()) {
+                    if (channels[run].read(buffer) < 0)
+                        break;
+                }
+
+                buffer.flip();
+            }
+
+            if (buffer.remaining() < 8)
+                heads.remove(run);
+            else
+                heads.put(run, buffer.getLong());
+        }
+
+        @Override
+        public void close() throws IOException {
+            for (FileChannel channel : channels)
+                if (channel != null)
+                    channel.close();
+        }
+    }
+}
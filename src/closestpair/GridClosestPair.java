@@ -0,0 +1,161 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+import closestpair.result.ClosestPairResult;
+import closestpair.util.LongIntHashMap;
+import java.util.SplittableRandom;
+
+/**
+ * Randomized incremental closest pair in expected linear time (Rabin, Khuller and Matias, Golin et al.).
+ * Points are inserted in random order into a grid of square cells whose side is the current minimun distance,
+ * so each new point only has to be compared to the points of the 9 cells around it. When a closer pair is found
+ * the grid is rebuilt with smaller cells, which happens at step i with probability at most 2 / i.
+ * Does not need the points to be sorted.
+*/
+public class GridClosestPair implements ClosestPairSolver {
+    public static final long DEFAULT_SEED = 0x5EEDL;
+
+    private final long seed;
+
+    public GridClosestPair() {
+        this(DEFAULT_SEED);
+    }
+
+    /**
+     * The seed sets the insertion order, so the same seed always gives the same result and iterations
+    */
+    public GridClosestPair(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public ClosestPairResult closestPair(PointSet points) {
+        long startTime = System.nanoTime();
+        int n = points.size();
+        int[] xs = points.getXs();
+        int[] ys = points.getYs();
+        Candidate best = new Candidate();
+
+        if (n < 2)
+            return ClosestPair.result(points, best, System.nanoTime() - startTime);
+
+        // Random insertion order. Points are copied in that order so that they are read sequentially.
+        int[] order = new int[n];
+        SplittableRandom rng = new SplittableRandom(seed);
+
+        for (int i = 0; i < n; i++) {
+            int j = rng.nextInt(i + 1);
+            order[i] = order[j];
+            order[j] = i;
+        }
+
+        int[] px = new int[n];
+        int[] py = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            px[i] = xs[order[i]];
+            py[i] = ys[order[i]];
+        }
+
+        // Cells are linked lists of positions in the insertion order, the map has the first one of each cell
+        LongIntHashMap cells = new LongIntHashMap(n);
+        int[] next = new int[n];
+        best.offer(0, 1, distance(px, py, 0, 1));
+        best.iterations++;
+        long side = side(best.distance);
+        insert(cells, next, px, py, 0, side);
+        insert(cells, next, px, py, 1, side);
+
+        for (int i = 2; i < n && best.distance > 0; i++) {
+            long x = px[i];
+            long y = py[i];
+            long cellX = Math.floorDiv(x, side);
+            long cellY = Math.floorDiv(y, side);
+            long previous = best.distance;
+
+            // Compares the point to the points in the 9 cells around it
+            for (long cx = cellX - 1; cx <= cellX + 1; cx++) {
+                for (long cy = cellY - 1; cy <= cellY + 1; cy++) {
+                    for (int other = cells.get(key(cx, cy)); other != LongIntHashMap.MISSING; other = next[other]) {
+                        long dx = px[other] - x;
+                        long dy = py[other] - y;
+                        best.iterations++;
+                        best.offer(other, i, dx*dx + dy*dy);
+                    }
+                }
+            }
+
+            long newSide = side(best.distance);
+
+            // If the cells are now too large, rebuilds the grid with all points inserted so far
+            if (best.distance < previous && newSide < side) {
+                side = newSide;
+                cells.clear();
+
+                for (int j = 0; j <= i; j++)
+                    insert(cells, next, px, py, j, side);
+
+                best.iterations += i + 1;
+            } else {
+                insert(cells, next, px, py, i, side);
+                best.iterations++;
+            }
+        }
+
+        // Turns positions in the insertion order back into indices of the point set
+        if (best.first >= 0) {
+            best.first = order[best.first];
+            best.second = order[best.second];
+        }
+
+        // Pairs are kept in the order of the point set
+        if (best.first > best.second) {
+            int temp = best.first;
+            best.first = best.second;
+            best.second = temp;
+        }
+
+        return ClosestPair.result(points, best, System.nanoTime() - startTime);
+    }
+
+    @Override
+    public String getName() {
+        return "grid";
+    }
+
+    private static long distance(int[] xs, int[] ys, int index1, int index2) {
+        long dx = (long) xs[index2] - xs[index1];
+        long dy = (long) ys[index2] - ys[index1];
+
+        return dx*dx + dy*dy;
+    }
+
+    /**
+     * Adds a point at the start of the list of its cell
+    */
+    private static void insert(LongIntHashMap cells, int[] next, int[] xs, int[] ys, int point, long side) {
+        next[point] = cells.put(key(Math.floorDiv((long) xs[point], side), Math.floorDiv((long) ys[point], side)), point);
+    }
+
+    private static long key(long cellX, long cellY) {
+        return (cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Side of the cells for a squared distance, which is the smallest integer whose square is at least the distance
+    */
+    static long side(long distance) {
+        long side = (long) Math.sqrt((double) distance);
+
+        while (side * side < distance)
+            side++;
+
+        while (side > 1 && (side - 1) * (side - 1) >= distance)
+            side--;
+
+        return Math.max(1, side);
+    }
+}
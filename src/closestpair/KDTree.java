@@ -0,0 +1,382 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+import closestpair.result.ClosestPairResult;
+import closestpair.result.NeighboursResult;
+import closestpair.sort.MortonOrder;
+import closestpair.util.PairHeap;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Static 2D tree built once from a point set, for nearest neighbour queries.
+ * The tree is implicit: the points are reordered so that the node of the range [start, end) is its middle position,
+ * with the points before it on one side of its splitting line and the points after it on the other. Only the axis of
+ * every node is stored, so there are no node objects.
+ * Results are positions in the point set the tree was built from. The tree can be queried from many threads at once.
+*/
+public class KDTree {
+    // Ranges with this many points or less are searched linearly
+    private static final int LEAF_SIZE = 8;
+    // Points given to each task of the all nearest neighbours pass
+    private static final int TASK_SIZE = 1024;
+
+    private final PointSet points;
+    private final int size;
+    // Coordinates and position in the point set of every point, in tree order
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] ids;
+    // Splitting axis of the node in each position, 0 for x and 1 for y
+    private final byte[] axes;
+    private final long buildTime;
+    private volatile NeighboursResult neighbours;
+
+    public KDTree(ArrayList<Point2D> points) {
+        this(PointSet.from(points));
+    }
+
+    /**
+     * Builds the tree. The point set is not modified, but it should not change while the tree is used.
+    */
+    public KDTree(PointSet points) {
+        this(points, false);
+    }
+
+    /**
+     * Builds the tree, copying the points in Z-order first if morton is true. Nearby points are then already close
+     * before the build, so selecting the medians moves fewer of them, and the neighbours of nearby tree positions are
+     * written to nearby positions of the result.
+    */
+    public KDTree(PointSet points, boolean morton) {
+        long startTime = System.nanoTime();
+        this.points = points;
+        this.size = points.size();
+        this.xs = new int[size];
+        this.ys = new int[size];
+        this.ids = new int[size];
+        this.axes = new byte[size];
+
+        if (morton) {
+            MortonOrder.sort(points.getXs(), points.getYs(), size, ids);
+
+            for (int i = 0; i < size; i++) {
+                xs[i] = points.getX(ids[i]);
+                ys[i] = points.getY(ids[i]);
+            }
+        } else {
+            System.arraycopy(points.getXs(), 0, xs, 0, size);
+            System.arraycopy(points.getYs(), 0, ys, 0, size);
+
+            for (int i = 0; i < size; i++)
+                ids[i] = i;
+        }
+
+        build(0, size);
+        this.buildTime = System.nanoTime() - startTime;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public PointSet getPointSet() {
+        return points;
+    }
+
+    public long getBuildTime() {
+        return buildTime;
+    }
+
+    /**
+     * Position of the point nearest to the given coordinates, or -1 if the tree is empty
+    */
+    public int nearest(int x, int y) {
+        Query query = new Query();
+        nearest(0, size, x, y, -1, query);
+
+        return query.position < 0 ? -1 : ids[query.position];
+    }
+
+    /**
+     * Positions of the k points nearest to the given coordinates, from the nearest to the farthest
+    */
+    public int[] kNearest(int x, int y, int k) {
+        PairHeap heap = new PairHeap(k);
+        kNearest(0, size, x, y, heap);
+        int[] positions = new int[heap.size()];
+        int[] nearest = new int[heap.size()];
+        heap.drain(positions, nearest, new long[heap.size()]);
+
+        return nearest;
+    }
+
+    /**
+     * Finds the nearest neighbour of every point other than itself on the common pool
+    */
+    public NeighboursResult allNearestNeighbours() {
+        return allNearestNeighbours(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Finds the nearest neighbour of every point other than itself, splitting the points among the workers of a pool.
+     * Points are handed out in tree order, so each worker queries points that are close together.
+    */
+    public NeighboursResult allNearestNeighbours(ForkJoinPool pool) {
+        long startTime = System.nanoTime();
+        int[] nearest = new int[size];
+        long[] distances = new long[size];
+        long iterations = pool.invoke(new NeighboursTask(this, nearest, distances, 0, size));
+        NeighboursResult result = new NeighboursResult(nearest, distances, iterations, System.nanoTime() - startTime);
+        this.neighbours = result;
+
+        return result;
+    }
+
+    /**
+     * Closest pair of points, taken from the nearest neighbours of every point. The neighbours are found the first time.
+     * Iterations and time are those of the nearest neighbours pass.
+    */
+    public ClosestPairResult closestPair() {
+        NeighboursResult result = neighbours;
+
+        if (result == null)
+            result = allNearestNeighbours();
+
+        long minDistance = Long.MAX_VALUE;
+        int first = -1;
+        int second = -1;
+
+        for (int i = 0; i < size; i++) {
+            int neighbour = result.getNeighbour(i);
+
+            if (neighbour >= 0 && result.getDistance(i) < minDistance) {
+                minDistance = result.getDistance(i);
+                first = Math.min(i, neighbour);
+                second = Math.max(i, neighbour);
+            }
+        }
+
+        if (first < 0)
+            return new ClosestPairResult(null, null, minDistance, result.getIterations(), result.getTime());
+
+        return new ClosestPairResult(points.get(first), points.get(second), first, second, minDistance, result.getIterations(), result.getTime());
+    }
+
+    /**
+     * Builds the subtree of a range. End is exclusive.
+    */
+    private void build(int start, int end) {
+        while (end - start > LEAF_SIZE) {
+            // Splits by the axis along which the points are more spread out
+            int minX = Integer.MAX_VALUE, maxX = Integer.MIN_VALUE;
+            int minY = Integer.MAX_VALUE, maxY = Integer.MIN_VALUE;
+
+            for (int i = start; i < end; i++) {
+                minX = Math.min(minX, xs[i]);
+                maxX = Math.max(maxX, xs[i]);
+                minY = Math.min(minY, ys[i]);
+                maxY = Math.max(maxY, ys[i]);
+            }
+
+            int mid = (start + end) >>> 1;
+            byte axis = (long) maxX - minX >= (long) maxY - minY ? (byte) 0 : (byte) 1;
+            axes[mid] = axis;
+            select(start, end, mid, axis == 0 ? xs : ys);
+
+            // Recurses on the left half and loops on the right one. The halves differ by at most one point, so the recursion is logarithmic.
+            build(start, mid);
+            start = mid + 1;
+        }
+    }
+
+    /**
+     * Reorders a range so that the point in position k has the value it would have if sorted by the given coordinate,
+     * with no larger values before it and no smaller values after it
+    */
+    private void select(int start, int end, int k, int[] keys) {
+        int low = start;
+        int high = end - 1;
+
+        while (low < high) {
+            int pivot = keys[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+
+            while (i <= j) {
+                while (keys[i] < pivot)
+                    i++;
+
+                while (keys[j] > pivot)
+                    j--;
+
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+
+            if (k <= j)
+                high = j;
+            else if (k >= i)
+                low = i;
+            else
+                return;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int x = xs[i];
+        int y = ys[i];
+        int id = ids[i];
+        xs[i] = xs[j];
+        ys[i] = ys[j];
+        ids[i] = ids[j];
+        xs[j] = x;
+        ys[j] = y;
+        ids[j] = id;
+    }
+
+    /**
+     * Searches the nearest point to the coordinates in a subtree, skipping the point in the excluded position
+    */
+    private void nearest(int start, int end, int x, int y, int excluded, Query query) {
+        if (end - start <= LEAF_SIZE) {
+            for (int i = start; i < end; i++)
+                query.offer(i, excluded, xs[i], ys[i], x, y);
+
+            return;
+        }
+
+        int mid = (start + end) >>> 1;
+        query.offer(mid, excluded, xs[mid], ys[mid], x, y);
+        long d = axes[mid] == 0 ? (long) x - xs[mid] : (long) y - ys[mid];
+
+        // Searches the side of the query first, then the other one if it can have a nearer point
+        if (d < 0) {
+            nearest(start, mid, x, y, excluded, query);
+
+            if (d * d < query.distance)
+                nearest(mid + 1, end, x, y, excluded, query);
+        } else {
+            nearest(mid + 1, end, x, y, excluded, query);
+
+            if (d * d < query.distance)
+                nearest(start, mid, x, y, excluded, query);
+        }
+    }
+
+    /**
+     * Searches the nearest points to the coordinates in a subtree, keeping as many as the heap holds
+    */
+    private void kNearest(int start, int end, int x, int y, PairHeap heap) {
+        if (end - start <= LEAF_SIZE) {
+            for (int i = start; i < end; i++)
+                heap.offer(i, ids[i], distance(i, x, y));
+
+            return;
+        }
+
+        int mid = (start + end) >>> 1;
+        heap.offer(mid, ids[mid], distance(mid, x, y));
+        long d = axes[mid] == 0 ? (long) x - xs[mid] : (long) y - ys[mid];
+
+        if (d < 0) {
+            kNearest(start, mid, x, y, heap);
+
+            if (d * d < heap.bound())
+                kNearest(mid + 1, end, x, y, heap);
+        } else {
+            kNearest(mid + 1, end, x, y, heap);
+
+            if (d * d < heap.bound())
+                kNearest(start, mid, x, y, heap);
+        }
+    }
+
+    private long distance(int position, int x, int y) {
+        long dx = (long) xs[position] - x;
+        long dy = (long) ys[position] - y;
+
+        return dx*dx + dy*dy;
+    }
+
+    /**
+     * Nearest point found so far by a query
+    */
+    private static class Query {
+        int position = -1;
+        long distance = Long.MAX_VALUE;
+        long iterations;
+
+        void offer(int candidate, int excluded, int candidateX, int candidateY, int x, int y) {
+            if (candidate == excluded)
+                return;
+
+            long dx = (long) candidateX - x;
+            long dy = (long) candidateY - y;
+            long d = dx*dx + dy*dy;
+            iterations++;
+
+            if (d < distance) {
+                distance = d;
+                position = candidate;
+            }
+        }
+
+        void reset() {
+            position = -1;
+            distance = Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Finds the nearest neighbours of the points in a range of tree positions and returns the number of distances computed
+    */
+    @SuppressWarnings("serial")
+    private static class NeighboursTask extends RecursiveTask<Long> {
+        private final KDTree tree;
+        private final int[] nearest;
+        private final long[] distances;
+        private final int start;
+        private final int end;
+
+        NeighboursTask(KDTree tree, int[] nearest, long[] distances, int start, int end) {
+            this.tree = tree;
+            this.nearest = nearest;
+            this.distances = distances;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected Long compute() {
+            if (end - start > TASK_SIZE) {
+                int mid = (start + end) >>> 1;
+                NeighboursTask left = new NeighboursTask(tree, nearest, distances, start, mid);
+                left.fork();
+                long iterations = new NeighboursTask(tree, nearest, distances, mid, end).compute();
+
+                return iterations + left.join();
+            }
+
+            // One query is reused for every point of the range
+            Query query = new Query();
+
+            for (int i = start; i < end; i++) {
+                query.reset();
+                tree.nearest(0, tree.size, tree.xs[i], tree.ys[i], i, query);
+                int id = tree.ids[i];
+                nearest[id] = query.position < 0 ? -1 : tree.ids[query.position];
+                distances[id] = query.distance;
+            }
+
+            return query.iterations;
+        }
+    }
+}
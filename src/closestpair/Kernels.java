@@ -0,0 +1,36 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+/**
+ * Chooses the distance kernel used by the algorithms
+*/
+class Kernels {
+    static final String VECTOR_KERNEL = "closestpair.VectorDistanceKernel";
+
+    private Kernels() {
+    }
+
+    /**
+     * Loads the kernel with the given name. "auto" loads the vector kernel if it can, and the scalar one otherwise.
+    */
+    static DistanceKernel load(String name) {
+        if (name.equals("scalar"))
+            return DistanceKernel.SCALAR;
+
+        if (!name.equals("vector") && !name.equals("auto"))
+            throw new IllegalArgumentException("Unknown distance kernel: " + name);
+
+        // The vector kernel is loaded by name, so that the project does not depend on it
+        try {
+            return (DistanceKernel) Class.forName(VECTOR_KERNEL).getConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            if (name.equals("vector"))
+                System.err.println("The vector distance kernel is not available, using the scalar kernel: " + e);
+
+            return DistanceKernel.SCALAR;
+        }
+    }
+}
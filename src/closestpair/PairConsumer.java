@@ -0,0 +1,13 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+/**
+ * Receives pairs of points as they are found, as indices in a point set and their squared distance
+*/
+@FunctionalInterface
+public interface PairConsumer {
+    void accept(int first, int second, long distance);
+}
@@ -0,0 +1,171 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+import closestpair.metrics.Metrics;
+import closestpair.result.ClosestPairResult;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Finds the closest pair of points with the recursive algorithm, solving both halves of large sublists in parallel.
+ * It splits sublists exactly like ClosestPair.closestPair, so the pair, distance and iterations are the same.
+*/
+public class ParallelClosestPair implements ClosestPairSolver {
+    // Sublists with this many points or less are solved sequentially
+    public static final int DEFAULT_THRESHOLD = 8192;
+
+    private final ForkJoinPool pool;
+    private final boolean ownsPool;
+    private final int threshold;
+    private final int leafSize;
+
+    /**
+     * Uses the common pool and the threshold of the current tuning
+    */
+    public ParallelClosestPair() {
+        this(ForkJoinPool.commonPool(), Tuning.get().getParallelThreshold());
+    }
+
+    /**
+     * Creates its own pool with the given number of threads
+    */
+    public ParallelClosestPair(int parallelism, int threshold) {
+        this(new ForkJoinPool(parallelism), threshold, Tuning.get().getLeafSize(), true);
+    }
+
+    /**
+     * Runs on a pool owned by the caller
+    */
+    public ParallelClosestPair(ForkJoinPool pool, int threshold) {
+        this(pool, threshold, Tuning.get().getLeafSize(), false);
+    }
+
+    /**
+     * Runs on a pool owned by the caller with the given leaf size
+    */
+    ParallelClosestPair(ForkJoinPool pool, int threshold, int leafSize) {
+        this(pool, threshold, leafSize, false);
+    }
+
+    private ParallelClosestPair(ForkJoinPool pool, int threshold, int leafSize, boolean ownsPool) {
+        if (threshold < 1)
+            throw new IllegalArgumentException("The threshold must be positive");
+
+        this.pool = pool;
+        this.threshold = threshold;
+        this.leafSize = leafSize;
+        this.ownsPool = ownsPool;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public int getLeafSize() {
+        return leafSize;
+    }
+
+    /**
+     * Sorts the points by x if needed and finds the closest pair
+    */
+    @Override
+    public ClosestPairResult closestPair(PointSet points) {
+        Point2D.sort(points);
+
+        return closestPair(points, new Workspace(points.size()));
+    }
+
+    @Override
+    public String getName() {
+        return "parallel";
+    }
+
+    /**
+     * Finds the closest pair of points in a point set sorted by x, using the given scratch arrays.
+     * Tasks only touch their own range of the workspace, so all of them share it.
+    */
+    public ClosestPairResult closestPair(PointSet points, Workspace workspace) {
+        long startTime = System.nanoTime();
+        long allocated = Metrics.ENABLED ? Metrics.allocatedBytes() : 0;
+        workspace.ensureCapacity(points.size());
+        Candidate best = pool.invoke(new Task(points.getXs(), points.getYs(), workspace, 0, points.size(), threshold, leafSize));
+
+        // Time is the elapsed time of the whole run, not the sum of the time of each worker
+        long time = System.nanoTime() - startTime;
+
+        if (Metrics.ENABLED)
+            Metrics.run(getName(), points.size(), best.iterations, ClosestPair.depth(points.size(), leafSize), allocated, time);
+
+        return ClosestPair.result(points, best, time);
+    }
+
+    /**
+     * Shuts down the pool if it was created by this solver
+    */
+    public void shutdown() {
+        if (ownsPool)
+            pool.shutdown();
+    }
+
+    /**
+     * Finds the closest pair in a sublist, forking one half if the sublist is larger than the threshold
+    */
+    @SuppressWarnings("serial")
+    private static class Task extends RecursiveTask<Candidate> {
+        private final int[] xs;
+        private final int[] ys;
+        private final Workspace workspace;
+        private final int start;
+        private final int end;
+        private final int threshold;
+        private final int leafSize;
+
+        Task(int[] xs, int[] ys, Workspace workspace, int start, int end, int threshold, int leafSize) {
+            this.xs = xs;
+            this.ys = ys;
+            this.workspace = workspace;
+            this.start = start;
+            this.end = end;
+            this.threshold = threshold;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected Candidate compute() {
+            // Small sublists are solved sequentially
+            if (end - start <= threshold || end - start <= leafSize) {
+                Candidate best = new Candidate();
+                ClosestPair.closestPair(xs, ys, workspace, start, end, leafSize, best);
+
+                return best;
+            }
+
+            // Solves the left half on another worker and the right half on this one
+            int mid = start + (end - start) / 2;
+            Task left = new Task(xs, ys, workspace, start, mid, threshold, leafSize);
+            left.fork();
+            Candidate best = new Task(xs, ys, workspace, mid, end, threshold, leafSize).compute();
+            Candidate leftBest = left.join();
+
+            // Iterations of both halves are added, plus one for this call. The left half keeps the pair on ties.
+            best.iterations += leftBest.iterations + 1;
+
+            if (leftBest.distance <= best.distance) {
+                best.distance = leftBest.distance;
+                best.first = leftBest.first;
+                best.second = leftBest.second;
+            }
+
+            ClosestPair.combine(workspace, start, mid, end, xs[mid], best);
+
+            return best;
+        }
+    }
+}
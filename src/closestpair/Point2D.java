@@ -4,17 +4,18 @@
  */
 package closestpair;
 
+import closestpair.metrics.Metrics;
+import closestpair.metrics.Phase;
+import closestpair.result.ExecutionResult;
+import closestpair.sort.PointSorter;
 import java.util.ArrayList;
 import java.util.Objects;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * A point in a 2D space
 */
 public class Point2D {
-    // Random number generator for generating random points
-    private static Random rng;
-
     private final int x;
     private final int y;
 
@@ -81,92 +82,43 @@ public class Point2D {
      * Generates a random point with coordinates smaller than the given values
     */
     public static Point2D randomPoint(int x, int y) {
-        rng = new Random();
+        ThreadLocalRandom rng = ThreadLocalRandom.current();
         return new Point2D(rng.nextInt(2 * x) - x, rng.nextInt(2 * y) - y);
     }
 
     /*
-     * Sorts an arraylist of points using quicksort
+     * Sorts an arraylist of points by x, and by y when x values are equal. Returns the iterations and the elapsed time.
     */
-    public static void sort(ArrayList<Point2D> points) {
-        quicksort(points, 0, points.size());
+    public static ExecutionResult sort(ArrayList<Point2D> points) {
+        return sort(points, PointSorter.DEFAULT);
     }
 
     /*
-     * Sorts an arraylist of points using quicksort between the given bounds. End is exclusive.
+     * Sorts an arraylist of points using the given sorter. The list is filled with new points in order.
     */
-    private static void quicksort(ArrayList<Point2D> points, int start, int end) {
-        if (start + 1 < end) {
-            // Sorts based on pivot
-            int pivotPosition = partition(points, start, end);
-
-            // Sorts each partition at both sides of the pivot
-            quicksort(points, start, pivotPosition);
-            quicksort(points, pivotPosition + 1, end);
-        }
-    }
+    public static ExecutionResult sort(ArrayList<Point2D> points, PointSorter sorter) {
+        long start = System.nanoTime();
+        PointSet set = PointSet.from(points);
+        ExecutionResult result = sorter.sort(set);
 
-    /*
-     * Swaps 2 points in an arraylist
-    */
-    private static void swap(ArrayList<Point2D> points, int index1, int index2) {
-        Point2D temp = points.get(index1);
-        points.set(index1, points.get(index2));
-        points.set(index2, temp);
-    }
+        if (Metrics.ENABLED)
+            Metrics.time(Phase.SORT, start);
 
-    /*
-     * Finds the pivot of a quicksort algorithm by using the median of the first, last and middle elements. The median is then placed at the end of the arraylist
-    */
-    public static Point2D median3(ArrayList<Point2D> points, int start, int end) {
-        int mid = start + (end - start) / 2;
-        Point2D first = points.get(start);
-        Point2D middle = points.get(mid);
-        Point2D last = points.get(end - 1);
-
-        if (middle.smallerThan(first) ^ last.smallerThan(first)) {
-            // The first element is the pivot
-            swap(points, start, end - 1);
-            return first;
-        } else if (first.smallerThan(middle) ^ last.smallerThan(middle)) {
-            // The middle element is the pivot
-            swap(points, mid, end - 1);
-            return middle;
-        } else
-            // The last element is the pivot
-            return last;
+        for (int i = 0; i < set.size(); i++)
+            points.set(i, set.get(i));
+
+        return new ExecutionResult(result.getIterations() + 2L * set.size(), System.nanoTime() - start);
     }
 
     /*
-     * Sorts and partitions an sublist based on a pivot. Returns the position at which the pivot ends.
+     * Sorts a point set in place by x, and by y when x values are equal. Returns the iterations and the elapsed time.
     */
-    private static int partition(ArrayList<Point2D> points, int start, int end) {
-        if (end - start == 2) {
-            if (points.get(start + 1).smallerThan(points.get(start))) {
-                swap(points, start, start + 1);
-            }
-
-            return start;
-        }
-
-        // Finds the pivot and temporarily places it at the end of the sublist
-        Point2D pivot = median3(points, start, end);
-
-        // The position in which the pivot will be placed at the end
-        int pivotPosition = start;
-
-        // Loops through the sublist
-        for (int i = start; i < end; i++) {
-            // If the element is smaller than the pivot it gets placed at the current pivot position. The pivot position then is incremented by 1.
-            if (points.get(i).smallerThan(pivot)) {
-                swap(points, i, pivotPosition);
-                pivotPosition++;
-            }
-        }
-
-        // In the end, the pivot is placed in its respective position
-        swap(points, end - 1, pivotPosition);
-
-        return pivotPosition;
+    public static ExecutionResult sort(PointSet points) {
+        ExecutionResult result = PointSorter.DEFAULT.sort(points);
+
+        if (Metrics.ENABLED)
+            Metrics.add(Phase.SORT, result.getTime());
+
+        return result;
     }
 }
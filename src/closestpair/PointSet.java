@@ -0,0 +1,183 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A set of points in a 2D space stored as parallel arrays of coordinates, without an object per point
+*/
+public class PointSet {
+    private int[] xs;
+    private int[] ys;
+    private int size;
+
+    // Whether the points are known to be sorted by x, and by y when x values are equal. Writing to the backing arrays directly does not clear it.
+    private boolean sorted;
+
+    public PointSet(int capacity) {
+        this.xs = new int[capacity];
+        this.ys = new int[capacity];
+    }
+
+    /**
+     * Wraps the given coordinate arrays without copying them
+    */
+    public PointSet(int[] xs, int[] ys, int size) {
+        if (xs.length < size || ys.length < size)
+            throw new IllegalArgumentException("Coordinate arrays are smaller than the size");
+
+        this.xs = xs;
+        this.ys = ys;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getX(int index) {
+        return xs[index];
+    }
+
+    public int getY(int index) {
+        return ys[index];
+    }
+
+    public boolean isSorted() {
+        return sorted;
+    }
+
+    /**
+     * Marks the points as sorted or not, so that sorting can be skipped for points that are already in order
+    */
+    public void setSorted(boolean sorted) {
+        this.sorted = sorted;
+    }
+
+    /**
+     * Backing array of x coordinates. Only the first size() values are points.
+    */
+    public int[] getXs() {
+        return xs;
+    }
+
+    /**
+     * Backing array of y coordinates. Only the first size() values are points.
+    */
+    public int[] getYs() {
+        return ys;
+    }
+
+    /**
+     * Creates a point object for the point at the given index
+    */
+    public Point2D get(int index) {
+        return new Point2D(xs[index], ys[index]);
+    }
+
+    /**
+     * Adds a point at the end of the set, growing the arrays if needed
+    */
+    public void add(int x, int y) {
+        if (size == xs.length) {
+            int capacity = Math.max(16, size + (size >> 1));
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+        }
+
+        if (sorted && size > 0 && (x < xs[size - 1] || (x == xs[size - 1] && y < ys[size - 1])))
+            sorted = false;
+
+        xs[size] = x;
+        ys[size] = y;
+        size++;
+    }
+
+    public void set(int index, int x, int y) {
+        sorted = false;
+        xs[index] = x;
+        ys[index] = y;
+    }
+
+    /**
+     * Swaps 2 points in the set
+    */
+    public void swap(int index1, int index2) {
+        sorted = false;
+        int x = xs[index1];
+        int y = ys[index1];
+        xs[index1] = xs[index2];
+        ys[index1] = ys[index2];
+        xs[index2] = x;
+        ys[index2] = y;
+    }
+
+    /**
+     * Finds the squared euclidean distance between 2 points in the set
+    */
+    public long distance(int index1, int index2) {
+        long dx = (long) xs[index2] - xs[index1];
+        long dy = (long) ys[index2] - ys[index1];
+
+        return dx*dx + dy*dy;
+    }
+
+    /**
+     * Compares 2 points in the set. Returns true if the first point's x value is smaller or if both x values are equal and the first point's y value is smaller
+    */
+    public boolean smallerThan(int index1, int index2) {
+        return xs[index1] < xs[index2] || (xs[index1] == xs[index2] && ys[index1] < ys[index2]);
+    }
+
+    /**
+     * Creates a copy of the set with its own arrays
+    */
+    public PointSet copy() {
+        PointSet copy = new PointSet(Arrays.copyOf(xs, size), Arrays.copyOf(ys, size), size);
+        copy.sorted = sorted;
+
+        return copy;
+    }
+
+    /**
+     * Copies a list of points into a new point set, keeping their order
+    */
+    public static PointSet from(List<Point2D> points) {
+        PointSet set = new PointSet(points.size());
+
+        for (Point2D point : points)
+            set.add(point.getX(), point.getY());
+
+        return set;
+    }
+
+    /**
+     * Creates a list with a point object for each point in the set
+    */
+    public ArrayList<Point2D> toList() {
+        ArrayList<Point2D> points = new ArrayList<>(size);
+
+        for (int i = 0; i < size; i++)
+            points.add(get(i));
+
+        return points;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder string = new StringBuilder();
+        string.append("PointSet[ ");
+
+        for (int i = 0; i < size; i++)
+            string.append("(").append(xs[i]).append(",").append(ys[i]).append(") ");
+
+        string.append("]");
+
+        return string.toString();
+    }
+}
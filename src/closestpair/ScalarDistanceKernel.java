@@ -0,0 +1,33 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+/**
+ * Distance kernel that compares one pair of points at a time
+*/
+class ScalarDistanceKernel implements DistanceKernel {
+    @Override
+    public int nearest(int[] xs, int[] ys, int start, int end, long x, long y, long bound) {
+        int nearest = -1;
+
+        for (int j = start; j < end; j++) {
+            long dx = xs[j] - x;
+            long dy = ys[j] - y;
+            long distance = dx*dx + dy*dy;
+
+            if (distance < bound) {
+                bound = distance;
+                nearest = j;
+            }
+        }
+
+        return nearest;
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+}
@@ -4,75 +4,122 @@
  */
 package closestpair;
 
+import closestpair.metrics.Metrics;
+import closestpair.metrics.Phase;
 import closestpair.result.ClosestPairResult;
 import closestpair.result.SpacePartitionResult;
 import java.util.ArrayList;
 
 /**
- * A partition of points in a 2D space, having up to 3 points
+ * A partition of points in a 2D space, having up to the leaf size of the current tuning in points. It is a view over a range of a point set.
 */
 public class SpacePartition2D {
-    private final ArrayList<Point2D> points;
+    private final PointSet points;
+    private final int start;
+    private final int end;
 
     // Partition bounds in the x axis
     public final int minX;
     public final int maxX;
 
     public SpacePartition2D(ArrayList<Point2D> points) {
-        this.points = points;
-        this.minX = points.get(0).getX();
-        this.maxX = points.get(points.size() - 1).getX();
+        this(PointSet.from(points), 0, points.size());
     }
 
     public SpacePartition2D(ArrayList<Point2D> points, int start, int end) {
         this(new ArrayList<>(points.subList(start, end)));
     }
 
+    /**
+     * Creates a partition over a range of a point set without copying it. End is exclusive.
+    */
+    public SpacePartition2D(PointSet points, int start, int end) {
+        this.points = points;
+        this.start = start;
+        this.end = end;
+        this.minX = points.getX(start);
+        this.maxX = points.getX(end - 1);
+    }
+
     /**
      * Finds the closest pair of points in the partition using brute force
     */
     public ClosestPairResult closestPair() {
-        Point2D point1 = null;
-        Point2D point2 = null;
+        return closestPair(this.points, this.start, this.end);
+    }
+
+    /**
+     * Finds the closest pair of points in a range of a point set using brute force. End is exclusive.
+    */
+    public static ClosestPairResult closestPair(PointSet points, int start, int end) {
+        int[] xs = points.getXs();
+        int[] ys = points.getYs();
+        int first = -1;
+        int second = -1;
 
         // Starts counting iterations, and elapsed time
         long iterations = 0;
         long startTime = System.nanoTime();
         long minimunDistance = Long.MAX_VALUE;
-        int end = this.points.size();
-
-        // Compares each point to all other points and finds the distance
-        for (int i = 0; i < end - 1; i++) {
-            Point2D first = this.points.get(i);
-
-            for (int j = i + 1; j < end; j++) {
-                iterations++;
-                Point2D second = points.get(j);
-                long distance = first.distanceTo(second);
-
-                // If the distance is smaller than the minimun distance it becomes the new closest pair
-                if (distance < minimunDistance) {
-                    point1 = first;
-                    point2 = second;
-                    minimunDistance = distance;
-                }
+
+        // Compares each point to all following points and finds the nearest one
+        for (int i = start; i < end - 1; i++) {
+            long x = xs[i];
+            long y = ys[i];
+            int j = DistanceKernel.DEFAULT.nearest(xs, ys, i + 1, end, x, y, minimunDistance);
+
+            // If the nearest point is closer than the minimun distance it becomes the new closest pair
+            if (j >= 0) {
+                long dx = xs[j] - x;
+                long dy = ys[j] - y;
+                first = i;
+                second = j;
+                minimunDistance = dx*dx + dy*dy;
             }
+
+            iterations += end - i - 1;
         }
 
-        return new ClosestPairResult(point1, point2, minimunDistance, iterations, System.nanoTime() - startTime);
+        long time = System.nanoTime() - startTime;
+
+        if (first < 0)
+            return new ClosestPairResult(null, null, minimunDistance, iterations, time);
+
+        return new ClosestPairResult(points.get(first), points.get(second), first, second, minimunDistance, iterations, time);
     }
 
     public ArrayList<Point2D> getPoints() {
+        ArrayList<Point2D> list = new ArrayList<>(end - start);
+
+        for (int i = start; i < end; i++)
+            list.add(points.get(i));
+
+        return list;
+    }
+
+    public PointSet getPointSet() {
         return points;
     }
 
+    public int getStart() {
+        return start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    public int size() {
+        return end - start;
+    }
+
     @Override
     public String toString() {
         StringBuilder string = new StringBuilder();
         string.append("Space Partition[ ");
 
-        for (Point2D point : this.points) {
-            string.append(point).append(" ");
+        for (int i = start; i < end; i++) {
+            string.append(points.get(i)).append(" ");
         }
 
         string.append("]");
@@ -84,30 +131,51 @@ public class SpacePartition2D {
      * Partitions a list of points into a list of space partitions
     */
     public static SpacePartitionResult partition(ArrayList<Point2D> points) {
-        long start = System.nanoTime();
-        SpacePartitionResult result = partition(points, 0, points.size());
+        return partition(PointSet.from(points));
+    }
 
-        return new SpacePartitionResult(result.getPartitions(), result.getIterations(), System.nanoTime() - start);
+    /**
+     * Partitions a point set into a list of space partitions. The partitions are views, so no points are copied.
+    */
+    public static SpacePartitionResult partition(PointSet points) {
+        return partition(points, 0, points.size());
     }
 
     /**
      * Partitions a sublist of points into a list of space partitions
     */
     public static SpacePartitionResult partition(ArrayList<Point2D> points, int start, int end) {
-        // If the number of points in the sublist is 3 or smaller, creates a new partition
-        if (end - start < 4) {
-            ArrayList<SpacePartition2D> list = new ArrayList<>();
+        return partition(PointSet.from(points.subList(start, end)), 0, end - start);
+    }
+
+    /**
+     * Partitions a range of a point set into a list of space partitions
+    */
+    public static SpacePartitionResult partition(PointSet points, int start, int end) {
+        long startTime = System.nanoTime();
+        ArrayList<SpacePartition2D> list = new ArrayList<>((end - start) / 2 + 1);
+        long iterations = end > start ? partition(points, start, end, Tuning.get().getLeafSize(), list) : 0;
+
+        if (Metrics.ENABLED)
+            Metrics.time(Phase.PARTITION, startTime);
+
+        return new SpacePartitionResult(list, iterations, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Recursively adds the partitions of a range of a point set to a list. Returns the number of iterations.
+    */
+    private static long partition(PointSet points, int start, int end, int leafSize, ArrayList<SpacePartition2D> list) {
+        // If the sublist fits in a leaf, creates a new partition
+        if (end - start <= leafSize) {
             list.add(new SpacePartition2D(points, start, end));
 
-            return new SpacePartitionResult(list, 1, 0);
+            return 1;
         }
 
         // Splits the sublist in half and partitions both halves
         int mid = start + (end - start) / 2;
-        SpacePartitionResult result1 = partition(points, start, mid);
-        SpacePartitionResult result2 = partition(points, mid, end);
-        result1.getPartitions().addAll(result2.getPartitions());
 
-        return new SpacePartitionResult(result1.getPartitions(), 1 + result1.getIterations() + result2.getIterations(), 0);
+        return 1 + partition(points, start, mid, leafSize, list) + partition(points, mid, end, leafSize, list);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+import closestpair.result.ClosestPairResult;
+import closestpair.util.LongTreeSet;
+
+/**
+ * Finds the closest pair of points with a sweep line. The points sorted by x are visited once from left to right, keeping an
+ * active set of the previous points whose distance in x is less than the minimun distance, ordered by y. Each point is only
+ * compared with the active points that are also closer in y than the minimun distance, of which there are a constant number.
+ * The active set is a tree of longs with y in the high half and the position of the point in the low half.
+*/
+public class SweepClosestPair implements ClosestPairSolver {
+    /**
+     * Sorts the points by x if needed and sweeps them
+    */
+    @Override
+    public ClosestPairResult closestPair(PointSet points) {
+        Point2D.sort(points);
+
+        return sweep(points, new LongTreeSet(64));
+    }
+
+    @Override
+    public String getName() {
+        return "sweep";
+    }
+
+    /**
+     * Finds the closest pair of points in a point set sorted by x, using the given tree as active set. The tree is cleared first.
+    */
+    public static ClosestPairResult sweep(PointSet points, LongTreeSet active) {
+        long startTime = System.nanoTime();
+        int[] xs = points.getXs();
+        int[] ys = points.getYs();
+        int n = points.size();
+        Candidate best = new Candidate();
+        active.clear();
+
+        // Points from head to the current one are in the active set
+        int head = 0;
+
+        for (int i = 0; i < n && best.distance > 0; i++) {
+            long x = xs[i];
+            long y = ys[i];
+            best.iterations++;
+
+            // Removes the points that are too far in x to be closer than the minimun distance
+            while (head < i) {
+                long dx = x - xs[head];
+
+                if (dx * dx < best.distance)
+                    break;
+
+                active.remove((long) ys[head] << 32 | head);
+                head++;
+            }
+
+            // Compares the point with the active points that are closer in y than the minimun distance
+            long side = best.distance == Long.MAX_VALUE ? 1L << 32 : GridClosestPair.side(best.distance);
+            long low = Math.max(Integer.MIN_VALUE, y - side);
+            long high = Math.min(Integer.MAX_VALUE, y + side);
+            int node = active.ceiling(low << 32);
+
+            while (node != LongTreeSet.NIL) {
+                long key = active.key(node);
+
+                if ((key >> 32) > high)
+                    break;
+
+                int j = (int) key;
+                long dx = x - xs[j];
+                long dy = y - ys[j];
+                best.iterations++;
+                best.offer(j, i, dx*dx + dy*dy);
+                node = active.higher(key);
+            }
+
+            active.add(y << 32 | i);
+        }
+
+        return ClosestPair.result(points, best, System.nanoTime() - startTime);
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+import java.util.SplittableRandom;
+
+/**
+ * Parameters of the recursive algorithm that depend on the machine:
+ * the largest sublist solved by comparing all its points, the largest point set solved by brute force without sorting,
+ * and the largest sublist the parallel solver does not split among workers.
+ * The parameters in use are taken the first time from, in order:
+ * a profile file given with -Dclosestpair.tuning=file, which is calibrated and saved if it does not exist;
+ * the system properties closestpair.leafSize, closestpair.bruteForceThreshold and closestpair.parallelThreshold;
+ * and the defaults, which are those of the original algorithm. They can also be pinned with set.
+*/
+public class Tuning {
+    public static final String PROFILE_PROPERTY = "closestpair.tuning";
+    public static final Tuning DEFAULT = new Tuning(3, 0, ParallelClosestPair.DEFAULT_THRESHOLD);
+
+    private static final int[] LEAF_SIZES = { 3, 4, 6, 8, 12, 16, 24, 32 };
+    private static final int[] BRUTE_FORCE_SIZES = { 8, 16, 32, 64, 128, 256 };
+    private static final int[] PARALLEL_THRESHOLDS = { 2048, 4096, 8192, 16384, 32768, 65536 };
+
+    private static volatile Tuning current;
+
+    private final int leafSize;
+    private final int bruteForceThreshold;
+    private final int parallelThreshold;
+
+    public Tuning(int leafSize, int bruteForceThreshold, int parallelThreshold) {
+        if (leafSize < 2)
+            throw new IllegalArgumentException("The leaf size must be at least 2");
+
+        if (bruteForceThreshold < 0 || parallelThreshold < 1)
+            throw new IllegalArgumentException("The thresholds must be positive");
+
+        this.leafSize = leafSize;
+        this.bruteForceThreshold = bruteForceThreshold;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Sublists with this many points or less are solved by comparing all their points
+    */
+    public int getLeafSize() {
+        return leafSize;
+    }
+
+    /**
+     * Point sets with this many points or less are solved by brute force, without sorting them
+    */
+    public int getBruteForceThreshold() {
+        return bruteForceThreshold;
+    }
+
+    /**
+     * Sublists with this many points or less are solved by a single worker of the parallel solver
+    */
+    public int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Parameters used by the algorithms
+    */
+    public static Tuning get() {
+        Tuning tuning = current;
+
+        if (tuning == null) {
+            synchronized (Tuning.class) {
+                if (current == null)
+                    current = initial();
+
+                tuning = current;
+            }
+        }
+
+        return tuning;
+    }
+
+    /**
+     * Pins the parameters used by the algorithms from now on
+    */
+    public static void set(Tuning tuning) {
+        current = tuning;
+    }
+
+    private static Tuning initial() {
+        String profile = System.getProperty(PROFILE_PROPERTY);
+
+        if (profile != null) {
+            try {
+                return loadOrCalibrate(profile);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        return new Tuning(
+            Integer.getInteger("closestpair.leafSize", DEFAULT.leafSize),
+            Integer.getInteger("closestpair.bruteForceThreshold", DEFAULT.bruteForceThreshold),
+            Integer.getInteger("closestpair.parallelThreshold", DEFAULT.parallelThreshold)
+        );
+    }
+
+    /**
+     * Loads a profile, or calibrates one and saves it if the file does not exist
+    */
+    public static Tuning loadOrCalibrate(String filename) throws IOException {
+        if (new File(filename).exists())
+            return load(filename);
+
+        Tuning tuning = calibrate();
+        tuning.save(filename);
+
+        return tuning;
+    }
+
+    public static Tuning load(String filename) throws IOException {
+        Properties properties = new Properties();
+
+        try (InputStream input = new FileInputStream(filename)) {
+            properties.load(input);
+        }
+
+        return new Tuning(
+            Integer.parseInt(properties.getProperty("leafSize", Integer.toString(DEFAULT.leafSize)).trim()),
+            Integer.parseInt(properties.getProperty("bruteForceThreshold", Integer.toString(DEFAULT.bruteForceThreshold)).trim()),
+            Integer.parseInt(properties.getProperty("parallelThreshold", Integer.toString(DEFAULT.parallelThreshold)).trim())
+        );
+    }
+
+    public void save(String filename) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("leafSize", Integer.toString(leafSize));
+        properties.setProperty("bruteForceThreshold", Integer.toString(bruteForceThreshold));
+        properties.setProperty("parallelThreshold", Integer.toString(parallelThreshold));
+
+        try (OutputStream output = new FileOutputStream(filename)) {
+            properties.store(output, "Closest pair tuning profile");
+        }
+    }
+
+    /**
+     * Measures the algorithms on random points on this machine and picks the fastest parameters. Takes a few seconds.
+    */
+    public static Tuning calibrate() {
+        SplittableRandom random = new SplittableRandom(0x5EED);
+
+        // Leaf size: the recursive algorithm on presorted points
+        PointSet points = randomPoints(random, 1 << 16);
+        Point2D.sort(points);
+        Workspace workspace = new Workspace(points.size());
+        int leafSize = DEFAULT.leafSize;
+        long bestTime = Long.MAX_VALUE;
+
+        for (int candidate : LEAF_SIZES) {
+            long time = Long.MAX_VALUE;
+
+            for (int i = 0; i < 7; i++)
+                time = Math.min(time, ClosestPair.closestPair(points, workspace, candidate).getTime());
+
+            if (time < bestTime) {
+                bestTime = time;
+                leafSize = candidate;
+            }
+        }
+
+        // Brute force threshold: the largest size up to which brute force beats sorting and recursing
+        int bruteForceThreshold = DEFAULT.bruteForceThreshold;
+
+        for (int size : BRUTE_FORCE_SIZES) {
+            PointSet set = randomPoints(random, size);
+            long bruteForceTime = Long.MAX_VALUE;
+            long recursiveTime = Long.MAX_VALUE;
+
+            for (int i = 0; i < 200; i++) {
+                bruteForceTime = Math.min(bruteForceTime, SpacePartition2D.closestPair(set, 0, size).getTime());
+
+                long startTime = System.nanoTime();
+                PointSet copy = set.copy();
+                Point2D.sort(copy);
+                ClosestPair.closestPair(copy, workspace, leafSize);
+                recursiveTime = Math.min(recursiveTime, System.nanoTime() - startTime);
+            }
+
+            if (bruteForceTime > recursiveTime)
+                break;
+
+            bruteForceThreshold = size;
+        }
+
+        // Parallel threshold, only meaningful with more than one processor
+        int parallelThreshold = DEFAULT.parallelThreshold;
+
+        if (Runtime.getRuntime().availableProcessors() > 1) {
+            points = randomPoints(random, 1 << 20);
+            Point2D.sort(points);
+            workspace.ensureCapacity(points.size());
+            bestTime = Long.MAX_VALUE;
+
+            for (int candidate : PARALLEL_THRESHOLDS) {
+                ParallelClosestPair solver = new ParallelClosestPair(java.util.concurrent.ForkJoinPool.commonPool(), candidate, leafSize);
+                long time = Long.MAX_VALUE;
+
+                for (int i = 0; i < 5; i++)
+                    time = Math.min(time, solver.closestPair(points, workspace).getTime());
+
+                if (time < bestTime) {
+                    bestTime = time;
+                    parallelThreshold = candidate;
+                }
+            }
+        }
+
+        return new Tuning(leafSize, bruteForceThreshold, parallelThreshold);
+    }
+
+    private static PointSet randomPoints(SplittableRandom random, int size) {
+        PointSet points = new PointSet(size);
+
+        for (int i = 0; i < size; i++)
+            points.add(random.nextInt(1 << 30), random.nextInt(1 << 30));
+
+        return points;
+    }
+
+    @Override
+    public String toString() {
+        return "Tuning: leafSize=" + leafSize + " bruteForceThreshold=" + bruteForceThreshold + " parallelThreshold=" + parallelThreshold;
+    }
+}
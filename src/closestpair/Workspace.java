@@ -0,0 +1,45 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair;
+
+/**
+ * Scratch arrays used by the recursive closest pair algorithm. Can be reused between calls to avoid allocating.
+*/
+public class Workspace {
+    // Points of the current sublist sorted by y, with their index in the point set
+    int[] xs;
+    int[] ys;
+    int[] indices;
+
+    // Buffer for merging and for the points near the dividing line
+    int[] bufferXs;
+    int[] bufferYs;
+    int[] bufferIndices;
+
+    public Workspace(int capacity) {
+        allocate(capacity);
+    }
+
+    /**
+     * Grows the arrays so that they can hold at least the given number of points
+    */
+    public void ensureCapacity(int capacity) {
+        if (xs.length < capacity)
+            allocate(Math.max(capacity, xs.length + (xs.length >> 1)));
+    }
+
+    public int capacity() {
+        return xs.length;
+    }
+
+    private void allocate(int capacity) {
+        xs = new int[capacity];
+        ys = new int[capacity];
+        indices = new int[capacity];
+        bufferXs = new int[capacity];
+        bufferYs = new int[capacity];
+        bufferIndices = new int[capacity];
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.cache;
+
+import closestpair.ClosestPairSolver;
+import closestpair.PointSet;
+import closestpair.result.ClosestPairResult;
+import closestpair.result.LoadResult;
+import closestpair.util.ContentHash;
+
+/**
+ * Solver that returns cached results for point sets it has already solved, and otherwise runs another solver and caches its result.
+ * Point sets are identified by their content hash, so the same points in a different order share their result.
+ * On a hit the set is not sorted or modified: the pair is looked up in it, and the indices refer to the set as it is.
+ * Iterations and time of a hit are those of the lookup.
+*/
+public class CachingSolver implements ClosestPairSolver {
+    private final ClosestPairSolver solver;
+    private final ResultCache cache;
+
+    public CachingSolver(ClosestPairSolver solver, ResultCache cache) {
+        this.solver = solver;
+        this.cache = cache;
+    }
+
+    public ResultCache getCache() {
+        return cache;
+    }
+
+    @Override
+    public ClosestPairResult closestPair(PointSet points) {
+        return closestPair(points, ContentHash.of(points));
+    }
+
+    /**
+     * Finds the closest pair of loaded points, using the hash computed while loading them
+    */
+    public ClosestPairResult closestPair(LoadResult load) {
+        return closestPair(load.getPoints(), load.getHash());
+    }
+
+    public ClosestPairResult closestPair(PointSet points, ContentHash hash) {
+        long startTime = System.nanoTime();
+        ClosestPairResult cached = cache.get(hash);
+
+        if (cached == null) {
+            ClosestPairResult result = solver.closestPair(points);
+            cache.put(hash, result);
+
+            return result;
+        }
+
+        if (cached.getPoint1() == null)
+            return new ClosestPairResult(null, null, cached.getDistance(), 0, System.nanoTime() - startTime);
+
+        // Finds the positions of the pair in this set
+        int x1 = cached.getPoint1().getX(), y1 = cached.getPoint1().getY();
+        int x2 = cached.getPoint2().getX(), y2 = cached.getPoint2().getY();
+        int index1 = -1;
+        int index2 = -1;
+        int i = 0;
+
+        for (; i < points.size() && (index1 < 0 || index2 < 0); i++) {
+            int x = points.getX(i);
+            int y = points.getY(i);
+
+            if (index1 < 0 && x == x1 && y == y1)
+                index1 = i;
+            else if (index2 < 0 && x == x2 && y == y2)
+                index2 = i;
+        }
+
+        // The pair is not in the set, so the hash was computed from other points
+        if (index1 < 0 || index2 < 0)
+            return solver.closestPair(points);
+
+        long time = System.nanoTime() - startTime;
+
+        if (index1 > index2)
+            return new ClosestPairResult(points.get(index2), points.get(index1), index2, index1, cached.getDistance(), i, time);
+
+        return new ClosestPairResult(points.get(index1), points.get(index2), index1, index2, cached.getDistance(), i, time);
+    }
+
+    @Override
+    public String getName() {
+        return solver.getName() + "_cached";
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.cache;
+
+import closestpair.Point2D;
+import closestpair.result.ApproximateClosestPairResult;
+import closestpair.result.ClosestPairResult;
+import closestpair.util.ContentHash;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Closest pair results by the content hash of their point set.
+ * The memory tier holds results up to a size in bytes and evicts the least recently used ones first. Each entry is charged
+ * the size of its map entry, its key, its result and the points the result holds. The optional disk tier
+ * keeps a file per result in a directory, so results survive restarts. It is not bounded, and results found in it are
+ * brought back to memory.
+*/
+public class ResultCache {
+    // Approximate sizes in memory with compressed references: a map entry with its slot in the table, a key, a result,
+    // the extra fields of an approximate result, and a point
+    private static final long MAP_ENTRY_BYTES = 48;
+    private static final long KEY_BYTES = 40;
+    private static final long RESULT_BYTES = 56;
+    private static final long APPROXIMATE_BYTES = 8;
+    private static final long POINT_BYTES = 24;
+    // Size of an exact result with its two points
+    static final long ENTRY_BYTES = MAP_ENTRY_BYTES + KEY_BYTES + RESULT_BYTES + 2 * POINT_BYTES;
+    private static final int FILE_VERSION = 1;
+
+    private final long maxBytes;
+    private final File directory;
+    private final LinkedHashMap<ContentHash, ClosestPairResult> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    private long hits;
+    private long diskHits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Creates a cache that is only kept in memory
+    */
+    public ResultCache(long maxBytes) {
+        this(maxBytes, null);
+    }
+
+    /**
+     * Creates a cache with a disk tier in the given directory, which is created if needed
+    */
+    public ResultCache(long maxBytes, File directory) {
+        if (maxBytes < ENTRY_BYTES)
+            throw new IllegalArgumentException("The cache must hold at least one result");
+
+        if (directory != null && !directory.isDirectory() && !directory.mkdirs())
+            throw new IllegalArgumentException("Can't create the cache directory " + directory);
+
+        this.maxBytes = maxBytes;
+        this.directory = directory;
+    }
+
+    /**
+     * Result of a point set with the given hash, or null if it is not cached
+    */
+    public synchronized ClosestPairResult get(ContentHash key) {
+        ClosestPairResult result = entries.get(key);
+
+        if (result != null) {
+            hits++;
+            return result;
+        }
+
+        result = directory == null ? null : readFile(key);
+
+        if (result == null) {
+            misses++;
+            return null;
+        }
+
+        diskHits++;
+        add(key, result);
+
+        return result;
+    }
+
+    public synchronized void put(ContentHash key, ClosestPairResult result) {
+        if (entries.containsKey(key))
+            return;
+
+        add(key, result);
+
+        if (directory != null)
+            writeFile(key, result);
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getDiskHits() {
+        return diskHits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Cache: entries=" + entries.size() + " bytes=" + bytes + " hits=" + hits + " disk_hits=" + diskHits + " misses=" + misses + " evictions=" + evictions;
+    }
+
+    /**
+     * Adds a result to memory, evicting the least recently used results until it fits
+    */
+    private void add(ContentHash key, ClosestPairResult result) {
+        entries.put(key, result);
+        bytes += sizeOf(result);
+        Iterator<Map.Entry<ContentHash, ClosestPairResult>> oldest = entries.entrySet().iterator();
+
+        while (bytes > maxBytes && oldest.hasNext()) {
+            bytes -= sizeOf(oldest.next().getValue());
+            oldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Bytes charged for a cached result
+    */
+    static long sizeOf(ClosestPairResult result) {
+        long size = MAP_ENTRY_BYTES + KEY_BYTES + RESULT_BYTES;
+
+        if (result instanceof ApproximateClosestPairResult)
+            size += APPROXIMATE_BYTES;
+
+        if (result.getPoint1() != null)
+            size += POINT_BYTES;
+
+        if (result.getPoint2() != null && result.getPoint2() != result.getPoint1())
+            size += POINT_BYTES;
+
+        return size;
+    }
+
+    private File file(ContentHash key) {
+        return new File(directory, key + ".result");
+    }
+
+    private ClosestPairResult readFile(ContentHash key) {
+        File file = file(key);
+
+        if (!file.exists())
+            return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != FILE_VERSION)
+                return null;
+
+            boolean found = in.readBoolean();
+            Point2D point1 = new Point2D(in.readInt(), in.readInt());
+            Point2D point2 = new Point2D(in.readInt(), in.readInt());
+            long distance = in.readLong();
+            long iterations = in.readLong();
+            long time = in.readLong();
+
+            return new ClosestPairResult(found ? point1 : null, found ? point2 : null, distance, iterations, time);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return null;
+    }
+
+    /**
+     * Writes a result to a temporary file and moves it in place, so that readers never see a partial file
+    */
+    private void writeFile(ContentHash key, ClosestPairResult result) {
+        boolean found = result.getPoint1() != null;
+
+        try {
+            File temporary = File.createTempFile("result", ".tmp", directory);
+
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporary)))) {
+                out.writeInt(FILE_VERSION);
+                out.writeBoolean(found);
+                out.writeInt(found ? result.getPoint1().getX() : 0);
+                out.writeInt(found ? result.getPoint1().getY() : 0);
+                out.writeInt(found ? result.getPoint2().getX() : 0);
+                out.writeInt(found ? result.getPoint2().getY() : 0);
+                out.writeLong(result.getDistance());
+                out.writeLong(result.getIterations());
+                out.writeLong(result.getTime());
+            }
+
+            Files.move(temporary.toPath(), file(key).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,306 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes bytes to a file that stays open, through a fixed pool of chunks. Callers fill a chunk in memory, and full
+ * chunks are written to the file by a background thread, which then gives them back to the pool. When all chunks are
+ * waiting to be written, callers wait for one to be free, so a slow disk slows writers down instead of using more memory.
+ * Binary values are little endian, like in binary point files.
+ *
+ * Writes are synchronized, so many threads can share a writer. Errors of the background thread are thrown by the next
+ * call. A writer that is not closed is flushed and closed when the JVM shuts down.
+*/
+public class AsyncChannelWriter implements AutoCloseable {
+    public static final int DEFAULT_CHUNK_SIZE = 64 << 10;
+    public static final int DEFAULT_CHUNKS = 4;
+
+    // Handed to the background thread to make it stop
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final FileChannel channel;
+    private final BlockingQueue<ByteBuffer> free;
+    private final BlockingQueue<ByteBuffer> full;
+    private final Thread flusher;
+    private final Thread shutdownHook;
+    private ByteBuffer chunk;
+    private boolean closed;
+
+    // Chunks handed to the background thread, and chunks it has written
+    private long submitted;
+    private long written;
+    private volatile IOException failure;
+
+    /**
+     * Creates or truncates a file
+    */
+    public AsyncChannelWriter(String filename) throws IOException {
+        this(filename, false, DEFAULT_CHUNK_SIZE, DEFAULT_CHUNKS);
+    }
+
+    /**
+     * Opens a file, keeping its contents if append is true, with the given number of chunks of the given size in bytes
+    */
+    public AsyncChannelWriter(String filename, boolean append, int chunkSize, int chunks) throws IOException {
+        if (chunkSize < 64 || chunks < 2)
+            throw new IllegalArgumentException("At least 2 chunks of 64 bytes are needed");
+
+        this.channel = append
+            ? FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)
+            : FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.free = new ArrayBlockingQueue<>(chunks);
+        this.full = new ArrayBlockingQueue<>(chunks + 1);
+
+        for (int i = 1; i < chunks; i++)
+            free.add(ByteBuffer.allocateDirect(chunkSize).order(ByteOrder.LITTLE_ENDIAN));
+
+        this.chunk = ByteBuffer.allocateDirect(chunkSize).order(ByteOrder.LITTLE_ENDIAN);
+        this.flusher = new Thread(this::flushLoop, "closestpair-writer");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+        this.shutdownHook = new Thread(this::closeQuietly, "closestpair-writer-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    public synchronized void write(byte value) throws IOException {
+        ensure(1);
+        chunk.put(value);
+    }
+
+    public synchronized void write(byte[] bytes) throws IOException {
+        write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Writes bytes, splitting them across chunks if they don't fit in one
+    */
+    public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+        check();
+
+        while (length > 0) {
+            if (!chunk.hasRemaining())
+                submit();
+
+            int count = Math.min(length, chunk.remaining());
+            chunk.put(bytes, offset, count);
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Writes text as UTF-8
+    */
+    public synchronized void write(String text) throws IOException {
+        check();
+        int length = text.length();
+        int i = 0;
+
+        // ASCII characters are copied directly, anything else is encoded
+        while (i < length) {
+            if (!chunk.hasRemaining())
+                submit();
+
+            for (int end = Math.min(length, i + chunk.remaining()); i < end; i++) {
+                char c = text.charAt(i);
+
+                if (c >= 0x80) {
+                    write(text.substring(i).getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+
+                chunk.put((byte) c);
+            }
+        }
+    }
+
+    /**
+     * Writes the decimal digits of a long
+    */
+    public synchronized void writeDecimal(long value) throws IOException {
+        // A long takes at most 20 characters
+        ensure(20);
+
+        if (value == Long.MIN_VALUE) {
+            write(Long.toString(value));
+            return;
+        }
+
+        if (value < 0) {
+            chunk.put((byte) '-');
+            value = -value;
+        }
+
+        int start = chunk.position();
+
+        do {
+            chunk.put((byte) ('0' + value % 10));
+            value /= 10;
+        } while (value > 0);
+
+        // Digits were written from the last one, so they are reversed in place
+        for (int i = start, j = chunk.position() - 1; i < j; i++, j--) {
+            byte digit = chunk.get(i);
+            chunk.put(i, chunk.get(j));
+            chunk.put(j, digit);
+        }
+    }
+
+    public synchronized void writeInt(int value) throws IOException {
+        ensure(4);
+        chunk.putInt(value);
+    }
+
+    public synchronized void writeLong(long value) throws IOException {
+        ensure(8);
+        chunk.putLong(value);
+    }
+
+    public synchronized void writeDouble(double value) throws IOException {
+        ensure(8);
+        chunk.putDouble(value);
+    }
+
+    /**
+     * Hands the current chunk to the background thread and waits until everything written so far is in the file
+    */
+    public synchronized void flush() throws IOException {
+        check();
+
+        if (chunk.position() > 0)
+            submit();
+
+        try {
+            synchronized (full) {
+                while (written < submitted && failure == null)
+                    full.wait();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while flushing", e);
+        }
+
+        check();
+    }
+
+    /**
+     * Flushes, stops the background thread and closes the file
+    */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed)
+            return;
+
+        try {
+            flush();
+        } finally {
+            closed = true;
+            full.add(END);
+
+            try {
+                flusher.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            channel.close();
+
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // The JVM is already shutting down, which is when the hook calls close
+            }
+        }
+    }
+
+    /**
+     * Makes sure that the current chunk has room for the given number of bytes
+    */
+    private void ensure(int bytes) throws IOException {
+        check();
+
+        if (chunk.remaining() < bytes)
+            submit();
+    }
+
+    /**
+     * Hands the current chunk to the background thread and takes a free one, waiting if there is none
+    */
+    private void submit() throws IOException {
+        chunk.flip();
+
+        synchronized (full) {
+            submitted++;
+        }
+
+        full.add(chunk);
+
+        try {
+            chunk = free.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a free chunk", e);
+        }
+    }
+
+    private void check() throws IOException {
+        if (closed)
+            throw new IOException("The writer is closed");
+
+        if (failure != null)
+            throw failure;
+    }
+
+    /**
+     * Writes full chunks until it gets the end marker. After an error, chunks are given back without writing them.
+    */
+    private void flushLoop() {
+        while (true) {
+            ByteBuffer next;
+
+            try {
+                next = full.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            if (next == END)
+                return;
+
+            try {
+                while (next.hasRemaining() && failure == null)
+                    channel.write(next);
+            } catch (IOException e) {
+                failure = e;
+            }
+
+            next.clear();
+            free.add(next);
+
+            synchronized (full) {
+                written++;
+                full.notifyAll();
+            }
+        }
+    }
+
+    private void closeQuietly() {
+        try {
+            close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
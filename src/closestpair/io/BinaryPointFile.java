@@ -0,0 +1,145 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.io;
+
+import closestpair.PointSet;
+import closestpair.result.LoadResult;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Binary point file format. All values are little endian.
+ *
+ * Header (40 bytes): magic "CPTS", version, flags, point count as a long, minX, minY, maxX, maxY and 4 reserved bytes.
+ * Body: for each point, x and y as ints. If the DELTA_X flag is set, which requires the file to be sorted by x,
+ * each point is instead the difference with the previous x as an unsigned varint followed by y as a zigzag varint.
+*/
+public class BinaryPointFile {
+    public static final int MAGIC = 'C' | 'P' << 8 | 'T' << 16 | 'S' << 24;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 40;
+
+    // The points are sorted by x, and by y when x values are equal
+    public static final int SORTED_BY_X = 1;
+
+    // The body uses delta encoded x values and varints
+    public static final int DELTA_X = 2;
+
+    private final int flags;
+    private final long count;
+    private final int minX;
+    private final int minY;
+    private final int maxX;
+    private final int maxY;
+
+    public BinaryPointFile(int flags, long count, int minX, int minY, int maxX, int maxY) {
+        this.flags = flags;
+        this.count = count;
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+    }
+
+    public int getFlags() {
+        return flags;
+    }
+
+    public boolean isSortedByX() {
+        return (flags & SORTED_BY_X) != 0;
+    }
+
+    public boolean isDeltaEncoded() {
+        return (flags & DELTA_X) != 0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    public int getMaxX() {
+        return maxX;
+    }
+
+    public int getMaxY() {
+        return maxY;
+    }
+
+    /**
+     * Writes the header at the current position of a buffer
+    */
+    public void write(ByteBuffer buffer) {
+        ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(flags).putLong(count);
+        buffer.putInt(minX).putInt(minY).putInt(maxX).putInt(maxY).putInt(0);
+        buffer.order(order);
+    }
+
+    /**
+     * Reads a header from the current position of a buffer
+    */
+    public static BinaryPointFile read(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_SIZE)
+            throw new IOException("The file is too small to be a binary point file");
+
+        ByteOrder order = buffer.order();
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        try {
+            if (buffer.getInt() != MAGIC)
+                throw new IOException("The file is not a binary point file");
+
+            int version = buffer.getInt();
+
+            if (version != VERSION)
+                throw new IOException("Unsupported binary point file version " + version);
+
+            int flags = buffer.getInt();
+            long count = buffer.getLong();
+            BinaryPointFile header = new BinaryPointFile(flags, count, buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt());
+            buffer.getInt();
+
+            if (header.isDeltaEncoded() && !header.isSortedByX())
+                throw new IOException("Delta encoded files must be sorted by x");
+
+            return header;
+        } finally {
+            buffer.order(order);
+        }
+    }
+
+    /**
+     * Converts a text file of "x,y" lines to a binary file. If the points are already sorted the file is marked as sorted,
+     * and delta encoded if requested.
+    */
+    public static BinaryPointFile convert(String textFile, String binaryFile, boolean delta) throws IOException {
+        LoadResult load = MappedPointReader.read(textFile);
+        PointSet points = load.getPoints();
+
+        if (!points.isSorted())
+            points.setSorted(isSorted(points));
+
+        return BinaryPointWriter.write(binaryFile, points, delta && points.isSorted());
+    }
+
+    private static boolean isSorted(PointSet points) {
+        for (int i = 1; i < points.size(); i++) {
+            if (points.smallerThan(i, i - 1))
+                return false;
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.io;
+
+import closestpair.PointSet;
+import closestpair.result.LoadResult;
+import closestpair.util.ContentHash;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads binary point files by memory mapping them. Sorted files produce point sets that are already marked as sorted,
+ * so sorting them again is skipped.
+*/
+public class BinaryPointReader {
+    private BinaryPointReader() {
+    }
+
+    /**
+     * Reads the header of a binary point file
+    */
+    public static BinaryPointFile header(String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            return BinaryPointFile.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), BinaryPointFile.HEADER_SIZE)));
+        }
+    }
+
+    /**
+     * Reads all points of a binary point file
+    */
+    public static LoadResult read(String filename) throws IOException {
+        long start = System.nanoTime();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("The file is too large to be read at once");
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            BinaryPointFile header = BinaryPointFile.read(buffer);
+
+            if (header.getCount() > Integer.MAX_VALUE)
+                throw new IOException("The file has too many points to be read at once");
+
+            int n = (int) header.getCount();
+            int[] xs = new int[n];
+            int[] ys = new int[n];
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            if (header.isDeltaEncoded()) {
+                int x = 0;
+
+                for (int i = 0; i < n; i++) {
+                    x = i == 0 ? (int) getVarint(buffer) : (int) (x + getVarint(buffer));
+                    int y = (int) getVarint(buffer);
+                    xs[i] = x;
+                    ys[i] = (y >>> 1) ^ -(y & 1);
+                }
+            } else {
+                if (buffer.remaining() < 8L * n)
+                    throw new IOException("The file is shorter than its point count");
+
+                // Reads the pairs through an int view of the mapped file
+                IntBuffer ints = buffer.asIntBuffer();
+
+                for (int i = 0; i < n; i++) {
+                    xs[i] = ints.get(2 * i);
+                    ys[i] = ints.get(2 * i + 1);
+                }
+            }
+
+            PointSet points = new PointSet(xs, ys, n);
+            points.setSorted(header.isSortedByX());
+
+            return new LoadResult(points, size, ContentHash.of(points), n, System.nanoTime() - start);
+        }
+    }
+
+    static long getVarint(MappedByteBuffer buffer) throws IOException {
+        long value = 0;
+        int shift = 0;
+        byte b;
+
+        do {
+            if (!buffer.hasRemaining())
+                throw new IOException("The file is shorter than its point count");
+
+            if (shift >= Long.SIZE)
+                throw new IOException("Invalid varint in point file");
+
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+
+        return value;
+    }
+}
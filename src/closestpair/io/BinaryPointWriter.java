@@ -0,0 +1,144 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.io;
+
+import closestpair.PointSet;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes points to a binary point file one at a time. The header is written when the writer is closed,
+ * once the count and the bounds are known.
+*/
+public class BinaryPointWriter implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final boolean sorted;
+    private final boolean delta;
+
+    private long count;
+    private int minX = Integer.MAX_VALUE;
+    private int minY = Integer.MAX_VALUE;
+    private int maxX = Integer.MIN_VALUE;
+    private int maxY = Integer.MIN_VALUE;
+    private int previousX;
+    private int previousY;
+
+    /**
+     * Creates the file. If sorted is true, points must be written sorted by x, which allows delta encoding them.
+    */
+    public BinaryPointWriter(String filename, boolean sorted, boolean delta) throws IOException {
+        if (delta && !sorted)
+            throw new IllegalArgumentException("Only sorted points can be delta encoded");
+
+        this.channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        this.sorted = sorted;
+        this.delta = delta;
+
+        // Leaves room for the header
+        channel.position(BinaryPointFile.HEADER_SIZE);
+    }
+
+    /**
+     * Writes a point at the end of the file
+    */
+    public void write(int x, int y) throws IOException {
+        if (sorted && count > 0 && (x < previousX || (x == previousX && y < previousY)))
+            throw new IllegalStateException("Points are not sorted by x: (" + x + "," + y + ") after (" + previousX + "," + previousY + ")");
+
+        // A point takes at most 10 bytes
+        if (buffer.remaining() < 10)
+            flush();
+
+        if (delta) {
+            putVarint(count == 0 ? x & 0xFFFFFFFFL : (long) x - previousX);
+            putVarint(((y << 1) ^ (y >> 31)) & 0xFFFFFFFFL);
+        } else {
+            buffer.putInt(x).putInt(y);
+        }
+
+        count++;
+        previousX = x;
+        previousY = y;
+        minX = Math.min(minX, x);
+        minY = Math.min(minY, y);
+        maxX = Math.max(maxX, x);
+        maxY = Math.max(maxY, y);
+    }
+
+    /**
+     * Writes all points of a set
+    */
+    public void write(PointSet points) throws IOException {
+        int[] xs = points.getXs();
+        int[] ys = points.getYs();
+
+        for (int i = 0; i < points.size(); i++)
+            write(xs[i], ys[i]);
+    }
+
+    /**
+     * Writes the remaining points and the header, and closes the file
+    */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+            ByteBuffer header = ByteBuffer.allocate(BinaryPointFile.HEADER_SIZE);
+            getHeader().write(header);
+            header.flip();
+
+            while (header.hasRemaining())
+                channel.write(header, header.position());
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Header describing the points written so far
+    */
+    public BinaryPointFile getHeader() {
+        int flags = (sorted ? BinaryPointFile.SORTED_BY_X : 0) | (delta ? BinaryPointFile.DELTA_X : 0);
+
+        return new BinaryPointFile(flags, count, minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Writes a whole point set to a file. It is marked as sorted if the set is.
+    */
+    public static BinaryPointFile write(String filename, PointSet points, boolean delta) throws IOException {
+        try (BinaryPointWriter writer = new BinaryPointWriter(filename, points.isSorted(), delta)) {
+            writer.write(points);
+
+            return writer.getHeader();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+
+        while (buffer.hasRemaining())
+            channel.write(buffer);
+
+        buffer.clear();
+    }
+
+    private void putVarint(long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        buffer.put((byte) value);
+    }
+}
@@ -0,0 +1,317 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.io;
+
+import closestpair.PointSet;
+import closestpair.sort.PointKeys;
+import closestpair.util.LongHashSet;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Generates random points from a seed. The points are generated in blocks, each one with its own random stream split
+ * from the seed in a fixed order, so the same seed gives the same points no matter how many threads are used.
+*/
+public class DatasetGenerator {
+    // Number of points generated by each random stream
+    private static final int BLOCK_SIZE = 1 << 16;
+    // Draws for a single unique point before giving up, as a multiple of the draws it takes on average with uniform points
+    private static final int MAX_DRAWS = 64;
+
+    private final Distribution distribution;
+    private final long seed;
+    private final int width;
+    private final int height;
+    private final boolean unique;
+
+    /**
+     * Generates unique points with x in [-width, width) and y in [-height, height)
+    */
+    public DatasetGenerator(Distribution distribution, long seed, int width, int height) {
+        this(distribution, seed, width, height, distribution != Distribution.DUPLICATES);
+    }
+
+    public DatasetGenerator(Distribution distribution, long seed, int width, int height, boolean unique) {
+        if (width < 1 || height < 1 || width > 1 << 30 || height > 1 << 30)
+            throw new IllegalArgumentException("The range must be between 1 and 2^30");
+
+        if (unique && distribution == Distribution.DUPLICATES)
+            throw new IllegalArgumentException("Points drawn from a pool of duplicates can't be unique");
+
+        this.distribution = distribution;
+        this.seed = seed;
+        this.width = width;
+        this.height = height;
+        this.unique = unique;
+    }
+
+    public Distribution getDistribution() {
+        return distribution;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Generates n points
+    */
+    public PointSet generate(int n) {
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        SplittableRandom root = new SplittableRandom(seed);
+        Shape shape = new Shape(distribution, root.split(), n, width, height);
+
+        if (unique && n > shape.capacity())
+            throw new IllegalArgumentException("There are not " + n + " unique points in the range");
+
+        // Splits one stream for each block before generating, so that every block gets the same stream every time
+        int blocks = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        SplittableRandom[] streams = new SplittableRandom[blocks];
+
+        for (int i = 0; i < blocks; i++)
+            streams[i] = root.split();
+
+        IntStream.range(0, blocks).parallel().forEach(block -> {
+            int end = Math.min(n, (block + 1) * BLOCK_SIZE);
+
+            for (int i = block * BLOCK_SIZE; i < end; i++)
+                shape.point(streams[block], xs, ys, i);
+        });
+
+        PointSet points = new PointSet(xs, ys, n);
+
+        if (unique)
+            removeDuplicates(points, shape, root.split(), shape.capacity());
+
+        return points;
+    }
+
+    /**
+     * Replaces repeated points with new random points, keeping the first occurrence of each one
+    */
+    private static void removeDuplicates(PointSet points, Shape shape, SplittableRandom rng, long capacity) {
+        int n = points.size();
+        int[] xs = points.getXs();
+        int[] ys = points.getYs();
+        LongHashSet set = new LongHashSet(n);
+        int[] x = new int[1];
+        int[] y = new int[1];
+
+        for (int i = 0; i < n; i++) {
+            // Draws again until the point has not been seen. With i points seen, uniform points take capacity / (capacity - i)
+            // draws on average, and distributions that rarely reach some points may never find a new one.
+            long limit = MAX_DRAWS * (capacity / (capacity - i)) + BLOCK_SIZE;
+
+            for (long draws = 0; !set.add(PointKeys.pack(xs[i], ys[i])); draws++) {
+                if (draws == limit)
+                    throw new IllegalArgumentException("Could not draw " + n + " unique points from the " + shape.distribution + " distribution in the range");
+
+                shape.point(rng, x, y, 0);
+                xs[i] = x[0];
+                ys[i] = y[0];
+            }
+        }
+    }
+
+    /**
+     * Writes points to a text file of "x,y" lines through a large direct buffer
+    */
+    public static void writeText(PointSet points, String filename) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(4 << 20);
+            byte[] digits = new byte[11];
+
+            for (int i = 0; i < points.size(); i++) {
+                // A line takes at most 24 bytes
+                if (buffer.remaining() < 24) {
+                    buffer.flip();
+
+                    while (buffer.hasRemaining())
+                        channel.write(buffer);
+
+                    buffer.clear();
+                }
+
+                putInt(buffer, points.getX(i), digits);
+                buffer.put((byte) ',');
+                putInt(buffer, points.getY(i), digits);
+                buffer.put((byte) '\n');
+            }
+
+            buffer.flip();
+
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+        }
+    }
+
+    /**
+     * Writes points to a binary point file
+    */
+    public static void writeBinary(PointSet points, String filename) throws IOException {
+        BinaryPointWriter.write(filename, points, false);
+    }
+
+    /**
+     * Writes the decimal digits of an int
+    */
+    private static void putInt(ByteBuffer buffer, int value, byte[] digits) {
+        long v = value;
+
+        if (v < 0) {
+            buffer.put((byte) '-');
+            v = -v;
+        }
+
+        int count = 0;
+
+        do {
+            digits[count++] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v > 0);
+
+        while (count > 0)
+            buffer.put(digits[--count]);
+    }
+
+    /**
+     * Places single points for a distribution. Parameters shared by all points, like cluster centers, are drawn once.
+    */
+    private static class Shape {
+        private final Distribution distribution;
+        private final int width;
+        private final int height;
+
+        // Cluster centers, or the pool of points to repeat
+        private final int[] centerXs;
+        private final int[] centerYs;
+        private final double sigmaX;
+        private final double sigmaY;
+
+        // Grid size and spacing
+        private final int cells;
+        private final long spacingX;
+        private final long spacingY;
+
+        Shape(Distribution distribution, SplittableRandom rng, int n, int width, int height) {
+            this.distribution = distribution;
+            this.width = width;
+            this.height = height;
+            int centers = distribution == Distribution.GAUSSIAN_CLUSTERS ? Math.max(1, n / 1000) : distribution == Distribution.DUPLICATES ? Math.max(1, n / 16) : 0;
+            centerXs = new int[centers];
+            centerYs = new int[centers];
+
+            for (int i = 0; i < centers; i++) {
+                centerXs[i] = (int) (rng.nextLong(2L * width) - width);
+                centerYs[i] = (int) (rng.nextLong(2L * height) - height);
+            }
+
+            sigmaX = Math.max(1, width / (4 * Math.sqrt(Math.max(1, centers))));
+            sigmaY = Math.max(1, height / (4 * Math.sqrt(Math.max(1, centers))));
+            cells = (int) Math.max(1, Math.ceil(Math.sqrt(n)));
+            spacingX = Math.max(1, 2L * width / cells);
+            spacingY = Math.max(1, 2L * height / cells);
+        }
+
+        /**
+         * Number of different points the distribution can produce
+        */
+        long capacity() {
+            switch (distribution) {
+                case LINE: return 2L * width;
+                case GRID_JITTER: return positions(spacingX, width) * positions(spacingY, height);
+                default: return 4L * width * height;
+            }
+        }
+
+        /**
+         * Number of different values of a coordinate of the grid, after the jitter and the clamping to [-range, range)
+        */
+        private long positions(long spacing, int range) {
+            long jitter = spacing / 4;
+            long count = 0;
+            long last = Long.MIN_VALUE;
+
+            // The intervals of the cells are sorted and do not overlap, but the clamping can merge them at the ends
+            for (int cell = 0; cell < cells; cell++) {
+                long center = -range + cell * spacing + spacing / 2;
+                long from = Math.max(-range, Math.min(range - 1, center - jitter));
+                long to = Math.max(-range, Math.min(range - 1, center + jitter));
+                from = Math.max(from, last + 1);
+
+                if (to >= from) {
+                    count += to - from + 1;
+                    last = to;
+                }
+            }
+
+            return count;
+        }
+
+        /**
+         * Writes a random point at the given index of the arrays
+        */
+        void point(SplittableRandom rng, int[] xs, int[] ys, int index) {
+            long x;
+            long y;
+
+            switch (distribution) {
+                case GAUSSIAN_CLUSTERS: {
+                    int center = rng.nextInt(centerXs.length);
+                    x = centerXs[center] + Math.round(gaussian(rng) * sigmaX);
+                    y = centerYs[center] + Math.round(gaussian(rng) * sigmaY);
+                    break;
+                }
+                case GRID_JITTER: {
+                    x = -width + rng.nextInt(cells) * spacingX + spacingX / 2 + rng.nextLong(-spacingX / 4, spacingX / 4 + 1);
+                    y = -height + rng.nextInt(cells) * spacingY + spacingY / 2 + rng.nextLong(-spacingY / 4, spacingY / 4 + 1);
+                    break;
+                }
+                case LINE: {
+                    x = rng.nextLong(2L * width) - width;
+                    y = x * height / width;
+                    break;
+                }
+                case DUPLICATES: {
+                    int point = rng.nextInt(centerXs.length);
+                    x = centerXs[point];
+                    y = centerYs[point];
+                    break;
+                }
+                default: {
+                    x = rng.nextLong(2L * width) - width;
+                    y = rng.nextLong(2L * height) - height;
+                }
+            }
+
+            // Keeps the points inside the range
+            xs[index] = (int) Math.max(-width, Math.min(width - 1, x));
+            ys[index] = (int) Math.max(-height, Math.min(height - 1, y));
+        }
+
+        /**
+         * Draws a normally distributed value with the polar method
+        */
+        private static double gaussian(SplittableRandom rng) {
+            double u;
+            double v;
+            double s;
+
+            do {
+                u = 2 * rng.nextDouble() - 1;
+                v = 2 * rng.nextDouble() - 1;
+                s = u * u + v * v;
+            } while (s >= 1 || s == 0);
+
+            return u * Math.sqrt(-2 * Math.log(s) / s);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.io;
+
+/**
+ * Ways of placing random points
+*/
+public enum Distribution {
+    // Uniformly distributed in the whole range
+    UNIFORM,
+    // Normally distributed around a few random centers
+    GAUSSIAN_CLUSTERS,
+    // Near the nodes of a regular grid
+    GRID_JITTER,
+    // On the diagonal of the range
+    LINE,
+    // Drawn from a small pool of points, so many points are repeated
+    DUPLICATES
+}
@@ -4,15 +4,18 @@
  */
 package closestpair.io;
 
+import closestpair.DoublePointSet;
 import closestpair.Point2D;
+import closestpair.PointSet;
+import closestpair.result.LoadResult;
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.EOFException;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
 
 /**
  * Class containing methods for handling input data
@@ -22,28 +25,18 @@ public class InputFileHandler {
      * Creates a file containing random points
     */
     public static void create(String filename, int n) {
-        File file = new File(filename);
-
-        try {
-            // Creates file
-            if (file.exists())
-                file.delete();
-
-            file.createNewFile();
-
-            try (BufferedWriter out = new BufferedWriter(new FileWriter(file))) {
-                // Writes n random unique points to the file
-                HashSet<Point2D> set = new HashSet<>();
+        create(filename, n, System.nanoTime());
+    }
 
-                while (set.size() < n) {
-                    Point2D point = Point2D.randomPoint(10 * n, 20);
+    /**
+     * Creates a file containing n unique random points generated from a seed
+    */
+    public static void create(String filename, int n, long seed) {
+        // Points have x in [-10n, 10n) and y in [-20, 20)
+        DatasetGenerator generator = new DatasetGenerator(Distribution.UNIFORM, seed, (int) Math.min(1 << 30, Math.max(1, 10L * n)), 20);
 
-                    if (!set.contains(point)) {
-                        set.add(point);
-                        out.write(point.getX() + "," + point.getY() + "\n");
-                    }
-                }
-            }
+        try {
+            DatasetGenerator.writeText(generator.generate(n), filename);
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -71,4 +64,69 @@ public class InputFileHandler {
 
         return points;
     }
+
+    /**
+     * Reads a text file of points with any number of comma separated decimal coordinates, which are as many as in the first line.
+     * Empty lines are skipped.
+    */
+    public static DoublePointSet readDoubles(String filename) {
+        DoublePointSet points = null;
+        File file = new File(filename);
+
+        try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+            String line = in.readLine();
+
+            while (line != null) {
+                // Skips empty lines, like the other readers
+                if (line.trim().isEmpty()) {
+                    line = in.readLine();
+                    continue;
+                }
+
+                String[] input = line.split(",");
+                double[] point = new double[input.length];
+
+                for (int i = 0; i < input.length; i++)
+                    point[i] = Double.parseDouble(input[i].trim());
+
+                if (points == null)
+                    points = new DoublePointSet(point.length, 16);
+
+                points.add(point);
+                line = in.readLine();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return points == null ? new DoublePointSet(2, 0) : points;
+    }
+
+    /**
+     * Reads a file containing points into a point set by memory mapping it. The points are in the same order as with read.
+     * Binary point files are detected by their header.
+    */
+    public static LoadResult load(String filename) {
+        try {
+            if (isBinary(filename))
+                return BinaryPointReader.read(filename);
+
+            return MappedPointReader.read(filename);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+
+        return new LoadResult(new PointSet(0), 0, 0, 0);
+    }
+
+    /**
+     * Checks if a file starts with the magic number of binary point files
+    */
+    public static boolean isBinary(String filename) throws IOException {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(filename))) {
+            return Integer.reverseBytes(in.readInt()) == BinaryPointFile.MAGIC;
+        } catch (EOFException e) {
+            return false;
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,219 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.io;
+
+import closestpair.PointSet;
+import closestpair.result.LoadResult;
+import closestpair.util.ContentHash;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Reads a file of "x,y" lines by memory mapping it and parsing the numbers straight from the bytes into primitive arrays.
+ * Large files are split into chunks that start at the beginning of a line and are parsed in parallel.
+*/
+public class MappedPointReader {
+    // Size of the chunks a file is split into. Files smaller than this are read by a single thread.
+    public static final int DEFAULT_CHUNK_SIZE = 32 << 20;
+
+    private MappedPointReader() {
+    }
+
+    /**
+     * Reads all points of a file in the same order as InputFileHandler.read
+    */
+    public static LoadResult read(String filename) throws IOException {
+        return read(filename, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Reads all points of a file, splitting it into chunks of about the given size
+    */
+    public static LoadResult read(String filename, int chunkSize) throws IOException {
+        long start = System.nanoTime();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+            long size = channel.size();
+            long[] bounds = chunkBounds(channel, size, chunkSize);
+            int chunks = bounds.length - 1;
+            MappedByteBuffer[] buffers = new MappedByteBuffer[chunks];
+
+            for (int i = 0; i < chunks; i++)
+                buffers[i] = channel.map(FileChannel.MapMode.READ_ONLY, bounds[i], bounds[i + 1] - bounds[i]);
+
+            // First counts the points of each chunk, so that each chunk knows where to write its points
+            int[] offsets = new int[chunks + 1];
+            IntStream range = IntStream.range(0, chunks);
+
+            if (chunks > 1)
+                range = range.parallel();
+
+            range.forEach(i -> offsets[i + 1] = count(buffers[i]));
+
+            for (int i = 0; i < chunks; i++)
+                offsets[i + 1] += offsets[i];
+
+            int n = offsets[chunks];
+            int[] xs = new int[n];
+            int[] ys = new int[n];
+            range = IntStream.range(0, chunks);
+
+            if (chunks > 1)
+                range = range.parallel();
+
+            // Each chunk also hashes its points while they are still in the cache
+            ContentHash[] hashes = new ContentHash[chunks];
+            range.forEach(i -> {
+                parse(buffers[i], bounds[i], xs, ys, offsets[i]);
+                hashes[i] = ContentHash.of(xs, ys, offsets[i], offsets[i + 1]);
+            });
+
+            ContentHash hash = new ContentHash(0, 0, 0);
+
+            for (ContentHash chunkHash : hashes)
+                hash = hash.combine(chunkHash);
+
+            return new LoadResult(new PointSet(xs, ys, n), size, hash, n, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Finds the positions at which chunks start. Every chunk except the first one starts right after a line break.
+    */
+    private static long[] chunkBounds(FileChannel channel, long size, int chunkSize) throws IOException {
+        int chunks = (int) Math.max(1, (size + chunkSize - 1) / chunkSize);
+        long[] bounds = new long[chunks + 1];
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        int count = 1;
+
+        for (int i = 1; i < chunks; i++) {
+            long position = Math.max((long) i * chunkSize, bounds[count - 1] + 1);
+
+            // Moves the bound forward until the previous byte is a line break
+            while (position < size) {
+                buffer.clear();
+                channel.read(buffer, position - 1);
+                buffer.flip();
+                int k = 0;
+
+                while (k < buffer.limit() && buffer.get(k) != '\n')
+                    k++;
+
+                // The line break was read at position - 1 + k, so the chunk starts right after it
+                position += k;
+
+                if (k < buffer.limit())
+                    break;
+            }
+
+            if (position < size)
+                bounds[count++] = position;
+        }
+
+        bounds[count] = size;
+
+        return Arrays.copyOf(bounds, count + 1);
+    }
+
+    /**
+     * Counts the lines that are not empty in a chunk
+    */
+    private static int count(ByteBuffer buffer) {
+        int points = 0;
+        boolean empty = true;
+
+        for (int i = 0; i < buffer.limit(); i++) {
+            byte b = buffer.get(i);
+
+            if (b == '\n') {
+                if (!empty)
+                    points++;
+
+                empty = true;
+            } else if (b != '\r') {
+                empty = false;
+            }
+        }
+
+        return empty ? points : points + 1;
+    }
+
+    /**
+     * Parses the points of a chunk into the arrays, starting at the given offset
+    */
+    private static void parse(ByteBuffer buffer, long position, int[] xs, int[] ys, int offset) {
+        int n = offset;
+        int limit = buffer.limit();
+        int i = 0;
+
+        while (i < limit) {
+            byte b = buffer.get(i);
+
+            // Skips empty lines
+            if (b == '\n' || b == '\r') {
+                i++;
+                continue;
+            }
+
+            // Parses x until the comma. Like Integer.parseInt, the sign can be - or +.
+            long value = 0;
+            boolean negative = b == '-';
+            int digits = 0;
+
+            if (negative || b == '+')
+                i++;
+
+            while (i < limit && (b = buffer.get(i)) >= '0' && b <= '9') {
+                value = value * 10 + (b - '0');
+                digits++;
+                i++;
+            }
+
+            if (digits == 0 || digits > 10 || i >= limit || b != ',')
+                throw error(position + i);
+
+            xs[n] = toInt(negative ? -value : value, position + i);
+            i++;
+
+            // Parses y until the end of the line
+            value = 0;
+            b = i < limit ? buffer.get(i) : 0;
+            negative = b == '-';
+            digits = 0;
+
+            if (negative || b == '+')
+                i++;
+
+            while (i < limit && (b = buffer.get(i)) >= '0' && b <= '9') {
+                value = value * 10 + (b - '0');
+                digits++;
+                i++;
+            }
+
+            if (digits == 0 || digits > 10 || (i < limit && b != '\n' && b != '\r'))
+                throw error(position + i);
+
+            ys[n] = toInt(negative ? -value : value, position + i);
+            n++;
+        }
+    }
+
+    private static int toInt(long value, long position) {
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+            throw error(position);
+
+        return (int) value;
+    }
+
+    private static NumberFormatException error(long position) {
+        return new NumberFormatException("Invalid point at byte " + position);
+    }
+}
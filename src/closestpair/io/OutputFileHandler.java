@@ -4,55 +4,88 @@
  */
 package closestpair.io;
 
-import java.io.BufferedWriter;
-import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 
 /**
- * Handles output writing operations
+ * Handles output writing operations. The file is kept open and written in the background by an AsyncChannelWriter,
+ * so writing a value only copies it to memory.
 */
-public class OutputFileHandler {
-    private String filename;
+public class OutputFileHandler implements AutoCloseable {
+    private final String filename;
+    private AsyncChannelWriter out;
 
     /**
-     * Creates the output file
+     * Creates the output file for 10 repetitions
     */
     public OutputFileHandler(String filename) {
+        this(filename, 10);
+    }
+
+    /**
+     * Creates the output file, with a header for the time and iterations of each repetition and their averages
+    */
+    public OutputFileHandler(String filename, int repetitions) {
         this.filename = filename;
-        File file = new File(filename);
 
         try {
-            // Creates file
-            if (file.exists())
-                file.delete();
+            // Creates or truncates the file
+            out = new AsyncChannelWriter(filename);
+            out.write("size");
 
-            file.createNewFile();
-
-            try (BufferedWriter out = new BufferedWriter(new FileWriter(file))) {
-                out.write("size");
-
-                for (int i = 0; i < 10; i++) {
-                    out.write(" time" + i + " iterations" + i);
-                }
-
-                out.write(" avg_time avg_iterations\n");
+            for (int i = 0; i < repetitions; i++) {
+                out.write(" time" + i + " iterations" + i);
             }
+
+            out.write(" avg_time avg_iterations\n");
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
 
+    public String getFilename() {
+        return filename;
+    }
+
     /**
      * Writes data to the output file
     */
     public void write(String data) {
-        File file = new File(this.filename);
+        if (out == null)
+            return;
 
-        try (BufferedWriter out = new BufferedWriter(new FileWriter(file, true))) {
+        try {
             out.write(data);
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Waits until everything written so far is in the file
+    */
+    public void flush() {
+        if (out == null)
+            return;
+
+        try {
+            out.flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Flushes and closes the file. Files that are not closed are closed when the JVM shuts down.
+    */
+    @Override
+    public void close() {
+        if (out == null)
+            return;
+
+        try {
+            out.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
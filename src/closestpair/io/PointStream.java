@@ -0,0 +1,210 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the points of a text or binary point file a block at a time, for files too large to be loaded at once.
+ * Only a fixed size buffer is kept in memory.
+*/
+public class PointStream implements AutoCloseable {
+    private static final int BUFFER_SIZE = 1 << 20;
+    // Longest point of the binary formats: two varints of 10 bytes. Text lines can be longer, so they refill the buffer while they are parsed.
+    private static final int MAX_POINT_SIZE = 32;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final BinaryPointFile header;
+    private long remaining;
+    private boolean endOfFile;
+    private int x;
+
+    private PointStream(FileChannel channel, BinaryPointFile header) throws IOException {
+        this.channel = channel;
+        this.header = header;
+        this.remaining = header == null ? Long.MAX_VALUE : header.getCount();
+        this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        this.buffer.limit(0);
+
+        if (header != null)
+            channel.position(BinaryPointFile.HEADER_SIZE);
+    }
+
+    /**
+     * Opens a point file, detecting binary files by their header
+    */
+    public static PointStream open(String filename) throws IOException {
+        BinaryPointFile header = InputFileHandler.isBinary(filename) ? BinaryPointReader.header(filename) : null;
+
+        return new PointStream(FileChannel.open(Paths.get(filename), StandardOpenOption.READ), header);
+    }
+
+    public boolean isBinary() {
+        return header != null;
+    }
+
+    /**
+     * Whether the file says its points are sorted by x. Text files never do.
+    */
+    public boolean isSortedByX() {
+        return header != null && header.isSortedByX();
+    }
+
+    /**
+     * Reads up to count points into the arrays from the given position. Returns the number of points read, which is 0 only at the end of the file.
+    */
+    public int read(int[] xs, int[] ys, int offset, int count) throws IOException {
+        int read = 0;
+
+        while (read < count && remaining > 0) {
+            if (buffer.remaining() < MAX_POINT_SIZE && !endOfFile)
+                fill();
+
+            if (!buffer.hasRemaining())
+                break;
+
+            int i = offset + read;
+
+            if (header == null) {
+                if (!readText(xs, ys, i))
+                    continue;
+            } else if (header.isDeltaEncoded()) {
+                x = remaining == header.getCount() ? (int) getVarint() : (int) (x + getVarint());
+                int y = (int) getVarint();
+                xs[i] = x;
+                ys[i] = (y >>> 1) ^ -(y & 1);
+            } else {
+                if (buffer.remaining() < 8)
+                    throw new IOException("The file is shorter than its point count");
+
+                xs[i] = buffer.getInt();
+                ys[i] = buffer.getInt();
+            }
+
+            read++;
+            remaining--;
+        }
+
+        return read;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Parses a line with a pair of comma separated ints. Returns false for an empty line.
+    */
+    private boolean readText(int[] xs, int[] ys, int i) throws IOException {
+        byte b = buffer.get();
+
+        // Skips empty lines
+        if (b == '\n' || b == '\r')
+            return false;
+
+        buffer.position(buffer.position() - 1);
+        xs[i] = parseInt(',');
+        ys[i] = parseInt('\n');
+
+        return true;
+    }
+
+    private int parseInt(char separator) throws IOException {
+        boolean negative = false;
+        boolean signed = false;
+        boolean ended = false;
+        long value = 0;
+        int digits = 0;
+
+        while (true) {
+            // Lines can cross the end of the buffer
+            if (!buffer.hasRemaining()) {
+                if (endOfFile)
+                    break;
+
+                fill();
+                continue;
+            }
+
+            byte b = buffer.get();
+
+            if (b == separator)
+                break;
+
+            // Spaces can be around a number but not inside it
+            if (b == ' ' || b == '\r') {
+                ended = digits > 0 || signed;
+                continue;
+            }
+
+            if (ended)
+                throw new IOException("Unexpected character in point file: " + (char) b);
+
+            // The sign can only be the first character, and can be - or + like in Integer.parseInt
+            if ((b == '-' || b == '+') && !signed && digits == 0) {
+                negative = b == '-';
+                signed = true;
+            } else if (b >= '0' && b <= '9') {
+                value = value * 10 + (b - '0');
+                digits++;
+
+                // Stops before the value can overflow, like the other readers it rejects coordinates outside the int range
+                if (value > Integer.MAX_VALUE + 1L)
+                    throw new IOException("Coordinate out of range in point file");
+            } else {
+                throw new IOException("Unexpected character in point file: " + (char) b);
+            }
+        }
+
+        if (digits == 0)
+            throw new IOException("Missing coordinate in point file");
+
+        if (!negative && value > Integer.MAX_VALUE)
+            throw new IOException("Coordinate out of range in point file");
+
+        return (int) (negative ? -value : value);
+    }
+
+    private long getVarint() throws IOException {
+        long value = 0;
+        int shift = 0;
+        byte b;
+
+        do {
+            // The buffer only runs out at the end of the file
+            if (!buffer.hasRemaining())
+                throw new IOException("The file is shorter than its point count");
+
+            if (shift >= Long.SIZE)
+                throw new IOException("Invalid varint in point file");
+
+            b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+
+        return value;
+    }
+
+    private void fill() throws IOException {
+        buffer.compact();
+
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                endOfFile = true;
+                break;
+            }
+        }
+
+        buffer.flip();
+    }
+}
@@ -0,0 +1,17 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.io;
+
+/**
+ * File formats of RecordWriter
+*/
+public enum RecordFormat {
+    // A header line with the column names, then a line of comma separated values per record
+    CSV,
+    // A JSON object per line, with a field per column
+    JSON_LINES,
+    // Binary blocks of records, each one with the values of every column stored together. See RecordWriter.
+    COLUMNAR
+}
@@ -0,0 +1,224 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.io;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes records of numeric columns, like benchmark results or metrics, through an AsyncChannelWriter.
+ * A record is written by putting a value for each column in order and then calling end.
+ *
+ * The columnar format is little endian. Header: magic "CPRC", version, column count, and for each column its type
+ * (0 for long, 1 for double), the length of its name as a short and the name in UTF-8. Body: blocks of up to
+ * BLOCK_SIZE records, each one with the number of records as an int followed by the values of each column, 8 bytes
+ * each. The type of each column is taken from the first record, and the header is written with the first block.
+*/
+public class RecordWriter implements AutoCloseable {
+    public static final int MAGIC = 'C' | 'P' << 8 | 'R' << 16 | 'C' << 24;
+    public static final int VERSION = 1;
+    public static final int BLOCK_SIZE = 1024;
+
+    private static final byte LONG = 0;
+    private static final byte DOUBLE = 1;
+
+    private final AsyncChannelWriter out;
+    private final RecordFormat format;
+    private final String[] columns;
+
+    // Column of the next value
+    private int column;
+
+    // What goes before the value of each column in JSON lines
+    private byte[][] keys;
+
+    // Types and values of the current block of the columnar format. Doubles are stored as their bits.
+    private byte[] types;
+    private long[][] block;
+    private int blockSize;
+    private boolean headerWritten;
+
+    /**
+     * Creates or truncates a file for records with the given columns
+    */
+    public RecordWriter(String filename, RecordFormat format, String... columns) throws IOException {
+        this(new AsyncChannelWriter(filename), format, columns);
+    }
+
+    public RecordWriter(AsyncChannelWriter out, RecordFormat format, String... columns) throws IOException {
+        if (columns.length == 0)
+            throw new IllegalArgumentException("Records must have at least 1 column");
+
+        this.out = out;
+        this.format = format;
+        this.columns = columns.clone();
+
+        if (format == RecordFormat.CSV) {
+            for (int i = 0; i < columns.length; i++) {
+                // Names with separators or quotes are quoted, with quotes doubled
+                String name = columns[i];
+
+                if (name.contains(",") || name.contains("\"") || name.contains("\n"))
+                    name = "\"" + name.replace("\"", "\"\"") + "\"";
+
+                out.write(i > 0 ? "," + name : name);
+            }
+
+            out.write((byte) '\n');
+        } else if (format == RecordFormat.JSON_LINES) {
+            keys = new byte[columns.length][];
+
+            for (int i = 0; i < columns.length; i++)
+                keys[i] = ((i == 0 ? "{" : ",") + quote(columns[i]) + ":").getBytes(StandardCharsets.UTF_8);
+        } else {
+            types = new byte[columns.length];
+            block = new long[columns.length][BLOCK_SIZE];
+        }
+    }
+
+    public RecordFormat getFormat() {
+        return format;
+    }
+
+    public synchronized RecordWriter put(long value) throws IOException {
+        start(LONG);
+
+        if (format == RecordFormat.COLUMNAR)
+            block[column][blockSize] = value;
+        else
+            out.writeDecimal(value);
+
+        column++;
+
+        return this;
+    }
+
+    /**
+     * Puts a double. NaN and infinite values are written as null in JSON lines.
+    */
+    public synchronized RecordWriter put(double value) throws IOException {
+        start(DOUBLE);
+
+        if (format == RecordFormat.COLUMNAR)
+            block[column][blockSize] = Double.doubleToRawLongBits(value);
+        else if (format == RecordFormat.JSON_LINES && (Double.isNaN(value) || Double.isInfinite(value)))
+            out.write("null");
+        else
+            out.write(Double.toString(value));
+
+        column++;
+
+        return this;
+    }
+
+    /**
+     * Ends the current record, which must have a value for every column
+    */
+    public synchronized void end() throws IOException {
+        if (column != columns.length)
+            throw new IllegalStateException("The record has " + column + " values but there are " + columns.length + " columns");
+
+        column = 0;
+
+        if (format == RecordFormat.COLUMNAR) {
+            if (++blockSize == BLOCK_SIZE)
+                writeBlock();
+        } else {
+            out.write(format == RecordFormat.JSON_LINES ? "}\n" : "\n");
+        }
+    }
+
+    /**
+     * Writes the current block, if any, and waits until everything is in the file
+    */
+    public synchronized void flush() throws IOException {
+        writeBlock();
+        out.flush();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            writeBlock();
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Writes what goes before a value of the given type, and checks the type in the columnar format
+    */
+    private void start(byte type) throws IOException {
+        if (column == columns.length)
+            throw new IllegalStateException("The record already has a value for every column");
+
+        switch (format) {
+            case CSV:
+                if (column > 0)
+                    out.write((byte) ',');
+
+                break;
+            case JSON_LINES:
+                out.write(keys[column]);
+                break;
+            default:
+                // The first record sets the type of each column
+                if (blockSize == 0 && !headerWritten)
+                    types[column] = type;
+                else if (types[column] != type)
+                    throw new IllegalArgumentException("Column " + columns[column] + " was " + (types[column] == LONG ? "long" : "double"));
+        }
+    }
+
+    private void writeBlock() throws IOException {
+        if (format != RecordFormat.COLUMNAR || blockSize == 0)
+            return;
+
+        if (!headerWritten) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(columns.length);
+
+            for (int i = 0; i < columns.length; i++) {
+                byte[] name = columns[i].getBytes(StandardCharsets.UTF_8);
+                out.write(types[i]);
+                out.write((byte) name.length);
+                out.write((byte) (name.length >>> 8));
+                out.write(name);
+            }
+
+            headerWritten = true;
+        }
+
+        out.writeInt(blockSize);
+
+        for (long[] values : block) {
+            for (int i = 0; i < blockSize; i++)
+                out.writeLong(values[i]);
+        }
+
+        blockSize = 0;
+    }
+
+    /**
+     * Column name as a JSON string
+    */
+    private static String quote(String name) {
+        StringBuilder string = new StringBuilder("\"");
+
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+
+            if (c == '"' || c == '\\')
+                string.append('\\').append(c);
+            else if (c < 0x20)
+                string.append(String.format("\\u%04x", (int) c));
+            else
+                string.append(c);
+        }
+
+        return string.append('"').toString();
+    }
+}
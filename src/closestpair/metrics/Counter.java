@@ -0,0 +1,21 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.metrics;
+
+/**
+ * Quantities counted over all closest pair runs
+*/
+public enum Counter {
+    // Finished runs of a solver
+    RUNS,
+    // Squared distances computed
+    DISTANCES,
+    // Strips searched around a dividing line
+    STRIPS,
+    // Points in all strips searched
+    STRIP_POINTS,
+    // Bytes allocated by the threads that started the runs while the runs lasted
+    ALLOCATED_BYTES
+}
@@ -0,0 +1,106 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of latencies in nanoseconds that many threads can record to at once.
+ * Buckets are log-linear: each power of two is split into 16 buckets, so percentiles are within 1/16 of the real value.
+*/
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+
+    public void record(long latency) {
+        latency = Math.max(0, latency);
+        counts.incrementAndGet(bucket(latency));
+        count.incrementAndGet();
+        total.addAndGet(latency);
+        long current = max.get();
+
+        while (latency > current && !max.compareAndSet(current, latency))
+            current = max.get();
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.get();
+
+        return n == 0 ? 0 : (double) total.get() / n;
+    }
+
+    /**
+     * Smallest latency that is at least as large as the given fraction of the recorded ones, as the upper bound of its bucket
+    */
+    public long percentile(double fraction) {
+        long n = count.get();
+
+        if (n == 0)
+            return 0;
+
+        long rank = Math.max(1, (long) Math.ceil(fraction * n));
+        long seen = 0;
+
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+
+            if (seen >= rank)
+                return Math.min(upperBound(i), max.get());
+        }
+
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < counts.length(); i++)
+            counts.set(i, 0);
+
+        count.set(0);
+        max.set(0);
+        total.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + getCount() + " mean_ns=" + (long) getMean() + " p50_ns=" + percentile(0.5) + " p90_ns=" + percentile(0.9)
+            + " p99_ns=" + percentile(0.99) + " p999_ns=" + percentile(0.999) + " max_ns=" + getMax();
+    }
+
+    /**
+     * Values below 16 have a bucket each. Larger values are grouped by their highest bit and the 4 bits after it.
+    */
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS)
+            return (int) value;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+
+        return (exponent + 1) * SUB_BUCKETS + (int) (value >>> exponent) - SUB_BUCKETS;
+    }
+
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS)
+            return bucket;
+
+        int exponent = bucket / SUB_BUCKETS - 1;
+        long mantissa = bucket % SUB_BUCKETS + SUB_BUCKETS;
+
+        return ((mantissa + 1) << exponent) - 1;
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Optional instrumentation of the closest pair algorithms, enabled with -Dclosestpair.metrics=true.
+ * Every call site checks ENABLED first. It is a constant, so when metrics are disabled the JIT compiler removes
+ * the checks and everything inside them, and instrumented code runs as if it was not there.
+ * When enabled, runs also emit a closestpair.Run flight recorder event if the runtime supports JFR.
+*/
+public final class Metrics {
+    public static final boolean ENABLED = Boolean.getBoolean("closestpair.metrics");
+    private static final String JFR_RECORDER = "closestpair.metrics.JfrRunRecorder";
+
+    private static final LongAdder[] COUNTERS = adders(Counter.values().length);
+    private static final LongAdder[] PHASE_TIMES = adders(Phase.values().length);
+    private static final AtomicInteger MAX_DEPTH = new AtomicInteger();
+    private static final AtomicInteger MAX_STRIP = new AtomicInteger();
+    private static final RunRecorder RECORDER = ENABLED && available("jdk.jfr.Event") ? recorder(JFR_RECORDER) : null;
+    private static final ThreadMXBean THREADS = ENABLED ? ManagementFactory.getThreadMXBean() : null;
+    private static final boolean ALLOCATIONS = ENABLED && available("com.sun.management.ThreadMXBean") && allocationsSupported();
+
+    private Metrics() {
+    }
+
+    /**
+     * Adds the time elapsed since the given System.nanoTime() to a phase
+    */
+    public static void time(Phase phase, long startTime) {
+        PHASE_TIMES[phase.ordinal()].add(System.nanoTime() - startTime);
+    }
+
+    /**
+     * Adds a time in nanoseconds to a phase
+    */
+    public static void add(Phase phase, long time) {
+        PHASE_TIMES[phase.ordinal()].add(time);
+    }
+
+    public static void add(Counter counter, long value) {
+        COUNTERS[counter.ordinal()].add(value);
+    }
+
+    /**
+     * Records a strip searched around a dividing line with the given number of points
+    */
+    public static void strip(int size) {
+        COUNTERS[Counter.STRIPS.ordinal()].increment();
+        COUNTERS[Counter.STRIP_POINTS.ordinal()].add(size);
+        max(MAX_STRIP, size);
+    }
+
+    /**
+     * Bytes allocated so far by the current thread, or 0 if the runtime cannot tell
+    */
+    public static long allocatedBytes() {
+        if (!ALLOCATIONS)
+            return 0;
+
+        return ((com.sun.management.ThreadMXBean) THREADS).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * Records a finished run of a solver. The allocated bytes are those of the current thread since the given value of allocatedBytes().
+    */
+    public static void run(String solver, int points, long iterations, int depth, long startAllocated, long time) {
+        long allocated = allocatedBytes() - startAllocated;
+        COUNTERS[Counter.RUNS.ordinal()].increment();
+        COUNTERS[Counter.ALLOCATED_BYTES.ordinal()].add(allocated);
+        max(MAX_DEPTH, depth);
+
+        if (RECORDER != null)
+            RECORDER.record(solver, points, iterations, depth, allocated, time);
+    }
+
+    /**
+     * Values of all metrics since the start or the last reset. Values recorded by other threads while it is taken may be partially included.
+    */
+    public static MetricsSnapshot snapshot() {
+        long[] counters = new long[COUNTERS.length];
+        long[] phaseTimes = new long[PHASE_TIMES.length];
+
+        for (int i = 0; i < counters.length; i++)
+            counters[i] = COUNTERS[i].sum();
+
+        for (int i = 0; i < phaseTimes.length; i++)
+            phaseTimes[i] = PHASE_TIMES[i].sum();
+
+        return new MetricsSnapshot(counters, phaseTimes, MAX_DEPTH.get(), MAX_STRIP.get());
+    }
+
+    public static void reset() {
+        for (LongAdder counter : COUNTERS)
+            counter.reset();
+
+        for (LongAdder phaseTime : PHASE_TIMES)
+            phaseTime.reset();
+
+        MAX_DEPTH.set(0);
+        MAX_STRIP.set(0);
+    }
+
+    private static void max(AtomicInteger maximum, int value) {
+        int current = maximum.get();
+
+        while (value > current && !maximum.compareAndSet(current, value))
+            current = maximum.get();
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+
+        for (int i = 0; i < count; i++)
+            adders[i] = new LongAdder();
+
+        return adders;
+    }
+
+    /**
+     * Loads a recorder by name, so that the project does not depend on JFR. Returns null if it was not built.
+    */
+    private static RunRecorder recorder(String className) {
+        try {
+            return (RunRecorder) Class.forName(className).getConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static boolean available(String className) {
+        try {
+            Class.forName(className, false, Metrics.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    private static boolean allocationsSupported() {
+        if (!(THREADS instanceof com.sun.management.ThreadMXBean))
+            return false;
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) THREADS;
+
+        return threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled();
+    }
+}
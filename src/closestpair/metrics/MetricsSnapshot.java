@@ -0,0 +1,66 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.metrics;
+
+/**
+ * Values of all metrics at some point in time
+*/
+public class MetricsSnapshot {
+    private final long[] counters;
+    private final long[] phaseTimes;
+    private final int maxDepth;
+    private final int maxStripSize;
+
+    MetricsSnapshot(long[] counters, long[] phaseTimes, int maxDepth, int maxStripSize) {
+        this.counters = counters;
+        this.phaseTimes = phaseTimes;
+        this.maxDepth = maxDepth;
+        this.maxStripSize = maxStripSize;
+    }
+
+    public long get(Counter counter) {
+        return counters[counter.ordinal()];
+    }
+
+    /**
+     * Total time spent in a phase in nanoseconds, added up over all threads
+    */
+    public long getTime(Phase phase) {
+        return phaseTimes[phase.ordinal()];
+    }
+
+    /**
+     * Deepest recursion of any run, counting the first call as depth 1
+    */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getMaxStripSize() {
+        return maxStripSize;
+    }
+
+    public double getAverageStripSize() {
+        long strips = get(Counter.STRIPS);
+
+        return strips == 0 ? 0 : (double) get(Counter.STRIP_POINTS) / strips;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("Metrics:");
+
+        for (Counter counter : Counter.values())
+            builder.append(' ').append(counter.name().toLowerCase()).append('=').append(get(counter));
+
+        for (Phase phase : Phase.values())
+            builder.append(' ').append(phase.name().toLowerCase()).append("_ns=").append(getTime(phase));
+
+        builder.append(" max_depth=").append(maxDepth);
+        builder.append(" max_strip=").append(maxStripSize);
+
+        return builder.toString();
+    }
+}
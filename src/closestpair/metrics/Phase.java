@@ -0,0 +1,19 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.metrics;
+
+/**
+ * Parts of a closest pair run whose time is measured separately
+*/
+public enum Phase {
+    // Sorting the points by x
+    SORT,
+    // Splitting the points into space partitions
+    PARTITION,
+    // Comparing all points of the smallest sublists
+    BASE,
+    // Merging both halves by y and searching the strip around the dividing line
+    MERGE
+}
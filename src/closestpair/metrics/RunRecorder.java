@@ -0,0 +1,14 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.metrics;
+
+/**
+ * Receives the finished runs of the solvers when metrics are enabled.
+ * The flight recorder implementation is built apart from the Java 8 sources from src-jfr, and is loaded by name when
+ * the runtime has JFR.
+*/
+public interface RunRecorder {
+    void record(String solver, int points, long iterations, int depth, long allocated, long time);
+}
@@ -0,0 +1,46 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.result;
+
+import closestpair.Point2D;
+
+/**
+ * Result of an approximate closest pair search. The pair is a real pair of the set, and its distance is at most
+ * the error bound times the distance of the closest pair, comparing euclidean (not squared) distances.
+*/
+public class ApproximateClosestPairResult extends ClosestPairResult {
+    private final double epsilon;
+    private final boolean certified;
+
+    public ApproximateClosestPairResult(Point2D point1, Point2D point2, int index1, int index2, long distance, double epsilon, boolean certified, long iterations, long time) {
+        super(point1, point2, index1, index2, distance, iterations, time);
+        this.epsilon = epsilon;
+        this.certified = certified;
+    }
+
+    public double getEpsilon() {
+        return this.epsilon;
+    }
+
+    /**
+     * Whether the search finished before its time budget ran out. Otherwise the pair is only the best one found so far.
+    */
+    public boolean isCertified() {
+        return this.certified;
+    }
+
+    @Override
+    public boolean isApproximate() {
+        return true;
+    }
+
+    /**
+     * 1 + epsilon if the search was certified, infinity otherwise
+    */
+    @Override
+    public double getErrorBound() {
+        return certified ? 1 + epsilon : Double.POSITIVE_INFINITY;
+    }
+}
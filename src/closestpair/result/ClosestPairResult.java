@@ -14,10 +14,20 @@ public class ClosestPairResult extends ExecutionResult {
     private final Point2D point2;
     private final long distance;
 
+    // Positions of the points in the point set they were found in, or -1 if unknown
+    private final int index1;
+    private final int index2;
+
     public ClosestPairResult(Point2D point1, Point2D point2, long distance, long iterations, long time) {
+        this(point1, point2, -1, -1, distance, iterations, time);
+    }
+
+    public ClosestPairResult(Point2D point1, Point2D point2, int index1, int index2, long distance, long iterations, long time) {
         super(iterations, time);
         this.point1 = point1;
         this.point2 = point2;
+        this.index1 = index1;
+        this.index2 = index2;
         this.distance = distance;
     }
 
@@ -29,7 +39,29 @@ public class ClosestPairResult extends ExecutionResult {
         return this.point2;
     }
 
+    public int getIndex1() {
+        return this.index1;
+    }
+
+    public int getIndex2() {
+        return this.index2;
+    }
+
     public long getDistance() {
         return this.distance;
     }
+
+    /**
+     * Whether the pair may not be the closest one
+    */
+    public boolean isApproximate() {
+        return false;
+    }
+
+    /**
+     * Largest possible ratio between the euclidean distance of the pair and that of the closest pair
+    */
+    public double getErrorBound() {
+        return 1;
+    }
 }
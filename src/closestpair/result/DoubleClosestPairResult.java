@@ -0,0 +1,48 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.result;
+
+/**
+ * Resulting data from finding the closest pair of a set of points with double coordinates
+*/
+public class DoubleClosestPairResult extends ExecutionResult {
+    private final double[] point1;
+    private final double[] point2;
+    private final int index1;
+    private final int index2;
+    private final double distance;
+
+    public DoubleClosestPairResult(double[] point1, double[] point2, int index1, int index2, double distance, long iterations, long time) {
+        super(iterations, time);
+        this.point1 = point1;
+        this.point2 = point2;
+        this.index1 = index1;
+        this.index2 = index2;
+        this.distance = distance;
+    }
+
+    public double[] getPoint1() {
+        return this.point1;
+    }
+
+    public double[] getPoint2() {
+        return this.point2;
+    }
+
+    public int getIndex1() {
+        return this.index1;
+    }
+
+    public int getIndex2() {
+        return this.index2;
+    }
+
+    /**
+     * Squared euclidean distance between the points, or infinity if there are less than 2 points
+    */
+    public double getDistance() {
+        return this.distance;
+    }
+}
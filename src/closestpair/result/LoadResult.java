@@ -0,0 +1,53 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.result;
+
+import closestpair.PointSet;
+import closestpair.util.ContentHash;
+
+/**
+ * Resulting data from loading a file of points. Iterations are the number of points read.
+*/
+public class LoadResult extends ExecutionResult {
+    private final PointSet points;
+    private final long bytes;
+    private ContentHash hash;
+
+    public LoadResult(PointSet points, long bytes, long iterations, long time) {
+        this(points, bytes, null, iterations, time);
+    }
+
+    public LoadResult(PointSet points, long bytes, ContentHash hash, long iterations, long time) {
+        super(iterations, time);
+        this.points = points;
+        this.bytes = bytes;
+        this.hash = hash;
+    }
+
+    public PointSet getPoints() {
+        return this.points;
+    }
+
+    public long getBytes() {
+        return this.bytes;
+    }
+
+    /**
+     * Hash of the points as they were loaded. It is computed now if the loader did not compute it while reading.
+    */
+    public ContentHash getHash() {
+        if (this.hash == null)
+            this.hash = ContentHash.of(this.points);
+
+        return this.hash;
+    }
+
+    /**
+     * Megabytes read per second
+    */
+    public double getThroughput() {
+        return this.getTime() == 0 ? 0 : this.bytes / 1e6 / (this.getTime() / 1e9);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.result;
+
+/**
+ * Resulting data from finding the nearest neighbour of every point. Both arrays are indexed by the position of the point
+ * in its point set, the neighbour is -1 if the point has none.
+*/
+public class NeighboursResult extends ExecutionResult {
+    private final int[] neighbours;
+    private final long[] distances;
+
+    public NeighboursResult(int[] neighbours, long[] distances, long iterations, long time) {
+        super(iterations, time);
+        this.neighbours = neighbours;
+        this.distances = distances;
+    }
+
+    public int size() {
+        return neighbours.length;
+    }
+
+    public int getNeighbour(int point) {
+        return neighbours[point];
+    }
+
+    public long getDistance(int point) {
+        return distances[point];
+    }
+
+    public int[] getNeighbours() {
+        return neighbours;
+    }
+
+    public long[] getDistances() {
+        return distances;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.result;
+
+import java.util.Arrays;
+
+/**
+ * Resulting data from a query that finds many pairs of points. Pairs are stored as parallel arrays of indices in the
+ * point set and squared distances, with the first index smaller than the second.
+*/
+public class PairsResult extends ExecutionResult {
+    private final int[] firsts;
+    private final int[] seconds;
+    private final long[] distances;
+    private final int size;
+
+    public PairsResult(int[] firsts, int[] seconds, long[] distances, int size, long iterations, long time) {
+        super(iterations, time);
+        this.firsts = firsts;
+        this.seconds = seconds;
+        this.distances = distances;
+        this.size = size;
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public int getFirst(int pair) {
+        return this.firsts[pair];
+    }
+
+    public int getSecond(int pair) {
+        return this.seconds[pair];
+    }
+
+    public long getDistance(int pair) {
+        return this.distances[pair];
+    }
+
+    public int[] getFirsts() {
+        return Arrays.copyOf(this.firsts, this.size);
+    }
+
+    public int[] getSeconds() {
+        return Arrays.copyOf(this.seconds, this.size);
+    }
+
+    public long[] getDistances() {
+        return Arrays.copyOf(this.distances, this.size);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.result;
+
+import closestpair.PointSet;
+
+/**
+ * Resulting data from copying a point set in another order. The copy keeps the index of each of its points in the original set.
+*/
+public class ReorderResult extends ExecutionResult {
+    private final PointSet points;
+    private final int[] indices;
+
+    public ReorderResult(PointSet points, int[] indices, long iterations, long time) {
+        super(iterations, time);
+        this.points = points;
+        this.indices = indices;
+    }
+
+    /**
+     * Reordered copy of the points
+    */
+    public PointSet getPoints() {
+        return this.points;
+    }
+
+    /**
+     * Index in the original set of each point of the copy
+    */
+    public int[] getIndices() {
+        return this.indices;
+    }
+
+    public int getOriginalIndex(int index) {
+        return this.indices[index];
+    }
+
+    /**
+     * Turns the indices of a result found in the copy into indices of the original set, keeping the first index smaller
+    */
+    public ClosestPairResult toOriginal(ClosestPairResult result) {
+        if (result.getPoint1() == null || result.getIndex1() < 0)
+            return result;
+
+        int index1 = this.indices[result.getIndex1()];
+        int index2 = this.indices[result.getIndex2()];
+
+        if (index1 > index2)
+            return new ClosestPairResult(result.getPoint2(), result.getPoint1(), index2, index1, result.getDistance(), result.getIterations(), result.getTime());
+
+        return new ClosestPairResult(result.getPoint1(), result.getPoint2(), index1, index2, result.getDistance(), result.getIterations(), result.getTime());
+    }
+}
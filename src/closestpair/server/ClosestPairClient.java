@@ -0,0 +1,115 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.server;
+
+import closestpair.Point2D;
+import closestpair.PointSet;
+import closestpair.result.ClosestPairResult;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Blocking client of the solver server. It sends one request at a time, so it must not be shared between threads.
+*/
+public class ClosestPairClient implements AutoCloseable {
+    private final Socket socket;
+    private final DataInputStream in;
+    private final DataOutputStream out;
+    private int nextId;
+
+    /**
+     * Connects to a server on the loopback address
+    */
+    public ClosestPairClient(int port) throws IOException {
+        socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        socket.setTcpNoDelay(true);
+        in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+        out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+    }
+
+    /**
+     * Finds the closest pair of a point set on the server. The indices of the result are positions in the set,
+     * and the time is the time the server took to answer.
+    */
+    public ClosestPairResult closestPair(PointSet points) throws IOException {
+        int n = points.size();
+
+        if (n > Protocol.MAX_POINTS)
+            throw new IllegalArgumentException("The server solves at most " + Protocol.MAX_POINTS + " points");
+
+        int id = nextId++;
+        out.writeInt(9 + 8 * n);
+        out.writeByte(Protocol.SOLVE);
+        out.writeInt(id);
+        out.writeInt(n);
+
+        for (int i = 0; i < n; i++) {
+            out.writeInt(points.getX(i));
+            out.writeInt(points.getY(i));
+        }
+
+        out.flush();
+        in.readInt();
+        readHeader(Protocol.SOLVE, id);
+
+        if (in.readByte() != Protocol.OK) {
+            byte[] message = new byte[in.readUnsignedShort()];
+            in.readFully(message);
+
+            throw new IOException("The server could not solve the request: " + new String(message, StandardCharsets.UTF_8));
+        }
+
+        int index1 = in.readInt();
+        int index2 = in.readInt();
+        Point2D point1 = new Point2D(in.readInt(), in.readInt());
+        Point2D point2 = new Point2D(in.readInt(), in.readInt());
+        long distance = in.readLong();
+        long iterations = in.readLong();
+        long time = in.readLong();
+
+        if (index1 < 0)
+            return new ClosestPairResult(null, null, distance, iterations, time);
+
+        return new ClosestPairResult(point1, point2, index1, index2, distance, iterations, time);
+    }
+
+    /**
+     * Latency statistics of the server: the number of requests, then the mean, 50th, 90th, 99th and 99.9th percentiles and the maximum in nanoseconds
+    */
+    public long[] stats() throws IOException {
+        int id = nextId++;
+        out.writeInt(5);
+        out.writeByte(Protocol.STATS);
+        out.writeInt(id);
+        out.flush();
+        in.readInt();
+        readHeader(Protocol.STATS, id);
+        long[] stats = new long[7];
+
+        for (int i = 0; i < stats.length; i++)
+            stats[i] = in.readLong();
+
+        return stats;
+    }
+
+    private void readHeader(byte type, int id) throws IOException {
+        byte responseType = in.readByte();
+        int responseId = in.readInt();
+
+        if (responseType != type || responseId != id)
+            throw new IOException("Unexpected response " + responseType + " with id " + responseId);
+    }
+
+    @Override
+    public void close() throws IOException {
+        socket.close();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.server;
+
+import closestpair.BatchClosestPair;
+import closestpair.ParallelClosestPair;
+import closestpair.metrics.LatencyHistogram;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Long running server that solves point sets sent over a local TCP socket, so that every job does not pay for starting
+ * and warming up a JVM. The framing is described in Protocol.
+ * Each connection is served by its own thread, and the requests of all connections are solved together in batches by
+ * a single batcher thread, which keeps the solvers and their buffers warm. Requests too large for a batch are solved
+ * by the parallel solver on another thread, so that they don't delay the small ones. When the server falls behind,
+ * connections wait before reading more requests instead of the server queueing them without limit.
+ * The latency of every request, from reading it to writing its response, is recorded in a histogram that clients can
+ * query with a STATS message.
+*/
+public class ClosestPairServer implements AutoCloseable {
+    public static final int DEFAULT_PORT = 4310;
+    public static final int DEFAULT_MAX_REQUESTS = 1024;
+    public static final int DEFAULT_MAX_POINTS = 1 << 20;
+    // Time the batcher waits for more requests, in nanoseconds
+    public static final long DEFAULT_MAX_DELAY = 200_000;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService connections = Executors.newCachedThreadPool(daemon("closestpair-connection"));
+    // Connections that are still open, closed with the server
+    private final Set<Connection> openConnections = ConcurrentHashMap.newKeySet();
+    private final RequestBatcher batcher;
+    private final Thread batcherThread;
+    private final Thread acceptThread;
+    private final BatchClosestPair batchSolver = new BatchClosestPair();
+    private final ParallelClosestPair largeSolver = new ParallelClosestPair();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    /**
+     * Starts a server on a port of the loopback address with the default batching. Port 0 picks a free port.
+    */
+    public ClosestPairServer(int port) throws IOException {
+        this(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), DEFAULT_MAX_REQUESTS, DEFAULT_MAX_POINTS, DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * Starts a server on the given address. Batches have at most maxRequests requests and maxPoints points, and the batcher waits
+     * up to maxDelay nanoseconds for a batch to fill.
+    */
+    public ClosestPairServer(InetSocketAddress address, int maxRequests, int maxPoints, long maxDelay) throws IOException {
+        if (maxRequests < 1 || maxPoints < 1 || maxDelay < 0)
+            throw new IllegalArgumentException("The batch limits must be positive");
+
+        serverSocket = new ServerSocket();
+        serverSocket.bind(address);
+        batcher = new RequestBatcher(batchSolver, largeSolver, maxRequests, maxPoints, maxDelay);
+        batcherThread = daemon("closestpair-batcher").newThread(batcher);
+        acceptThread = daemon("closestpair-accept").newThread(this::accept);
+        batcherThread.start();
+        acceptThread.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    void submit(Request request) throws InterruptedException {
+        batcher.submit(request);
+    }
+
+    void closed(Connection connection) {
+        openConnections.remove(connection);
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                Connection connection = new Connection(socket, this);
+                openConnections.add(connection);
+
+                // The server may have closed its connections before this one was added
+                if (serverSocket.isClosed()) {
+                    connection.close();
+                    break;
+                }
+
+                connections.execute(connection);
+            } catch (IOException e) {
+                if (!serverSocket.isClosed())
+                    e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Stops accepting connections, answers the requests that were not solved yet with an error and closes the connections.
+     * A large request that is being solved is not answered.
+    */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        batcher.stop();
+        batcherThread.interrupt();
+
+        // Waits for the batcher to answer its queued requests before closing the connections
+        try {
+            batcherThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (Connection connection : openConnections)
+            connection.close();
+
+        connections.shutdownNow();
+        batchSolver.shutdown();
+        largeSolver.shutdown();
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+
+            return thread;
+        };
+    }
+
+    /**
+     * Runs a server until the process is stopped. The first argument is the port.
+    */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        ClosestPairServer server = new ClosestPairServer(port);
+        System.out.println("Listening on port " + server.getPort());
+
+        // Prints the latencies every minute
+        while (true) {
+            Thread.sleep(60_000);
+            System.out.println("Latencies: " + server.getLatencies());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.server;
+
+import closestpair.metrics.LatencyHistogram;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Connection with one client. Its thread reads requests and hands them to the batcher, which writes the responses back.
+*/
+class Connection implements Runnable {
+    private final Socket socket;
+    private final ClosestPairServer server;
+    private final DataOutputStream out;
+
+    Connection(Socket socket, ClosestPairServer server) throws IOException {
+        this.socket = socket;
+        this.server = server;
+        this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+    }
+
+    @Override
+    public void run() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16))) {
+            while (true) {
+                int length;
+
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+
+                if (length < 5 || length > Protocol.MAX_MESSAGE)
+                    throw new IOException("Invalid message length: " + length);
+
+                byte type = in.readByte();
+                int id = in.readInt();
+                long receivedTime = System.nanoTime();
+
+                if (type == Protocol.SOLVE) {
+                    int count = in.readInt();
+
+                    // Checked before allocating the points
+                    if (count < 0 || count > Protocol.MAX_POINTS)
+                        throw new IOException("Invalid point count: " + count);
+
+                    if (length != 9 + 8L * count)
+                        throw new IOException("The point count does not match the message length");
+
+                    int[] xs = new int[count];
+                    int[] ys = new int[count];
+
+                    for (int i = 0; i < count; i++) {
+                        xs[i] = in.readInt();
+                        ys[i] = in.readInt();
+                    }
+
+                    // Waits while the server is full, so that the client is slowed down
+                    server.submit(new Request(this, id, xs, ys, receivedTime));
+                } else if (type == Protocol.STATS) {
+                    sendStats(id);
+                } else {
+                    in.skipBytes(length - 5);
+                    sendError(id, "Unknown message type: " + type);
+                }
+            }
+        } catch (IOException e) {
+            if (!socket.isClosed())
+                e.printStackTrace();
+        } catch (InterruptedException e) {
+            // The server is closing
+        } finally {
+            close();
+        }
+    }
+
+    /**
+     * Sends the result of a request and records its latency
+    */
+    void sendResult(Request request, int index1, int index2, long distance, long iterations) {
+        boolean found = index1 >= 0;
+
+        synchronized (out) {
+            try {
+                long time = System.nanoTime() - request.receivedTime;
+                out.writeInt(5 + 1 + 24 + 24);
+                out.writeByte(Protocol.SOLVE);
+                out.writeInt(request.id);
+                out.writeByte(Protocol.OK);
+                out.writeInt(index1);
+                out.writeInt(index2);
+                out.writeInt(found ? request.xs[index1] : 0);
+                out.writeInt(found ? request.ys[index1] : 0);
+                out.writeInt(found ? request.xs[index2] : 0);
+                out.writeInt(found ? request.ys[index2] : 0);
+                out.writeLong(distance);
+                out.writeLong(iterations);
+                out.writeLong(time);
+                out.flush();
+                server.getLatencies().record(time);
+            } catch (IOException e) {
+                close();
+            }
+        }
+    }
+
+    void sendError(int id, String message) {
+        synchronized (out) {
+            try {
+                byte[] utf = message.getBytes(StandardCharsets.UTF_8);
+                int length = Math.min(utf.length, 0xFFFF);
+                out.writeInt(5 + 1 + 2 + length);
+                out.writeByte(Protocol.SOLVE);
+                out.writeInt(id);
+                out.writeByte(Protocol.ERROR);
+                out.writeShort(length);
+                out.write(utf, 0, length);
+                out.flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+    }
+
+    private void sendStats(int id) throws IOException {
+        LatencyHistogram latencies = server.getLatencies();
+
+        synchronized (out) {
+            out.writeInt(5 + 7 * 8);
+            out.writeByte(Protocol.STATS);
+            out.writeInt(id);
+            out.writeLong(latencies.getCount());
+            out.writeLong((long) latencies.getMean());
+            out.writeLong(latencies.percentile(0.5));
+            out.writeLong(latencies.percentile(0.9));
+            out.writeLong(latencies.percentile(0.99));
+            out.writeLong(latencies.percentile(0.999));
+            out.writeLong(latencies.getMax());
+            out.flush();
+        }
+    }
+
+    void close() {
+        server.closed(this);
+
+        try {
+            socket.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.server;
+
+/**
+ * Framing of the messages between the solver server and its clients. All values are big endian.
+ *
+ * Every message is an int with the length of the rest of the message in bytes, followed by a byte with its type
+ * and an int id chosen by the client, which the response repeats. Responses may arrive in a different order than the requests.
+ *
+ * SOLVE request: point count as an int, then x and y of each point as ints. The count is at most MAX_POINTS.
+ * SOLVE response: status byte. If it is OK: index1, index2, x1, y1, x2, y2 as ints, then the squared distance,
+ * the iterations and the time in nanoseconds from receiving the request to sending the response as longs.
+ * The indices are positions in the request, and are -1 for sets with less than two points.
+ * If the status is ERROR, the length of a message as a short followed by the message in UTF-8.
+ *
+ * STATS request: no body.
+ * STATS response: the number of requests answered, then the mean, 50th, 90th, 99th and 99.9th percentiles and the maximum of their latency in nanoseconds, as longs.
+*/
+public class Protocol {
+    public static final byte SOLVE = 1;
+    public static final byte STATS = 2;
+
+    public static final byte OK = 0;
+    public static final byte ERROR = 1;
+
+    // Most points in a request, so that a bad count can't make the server allocate without limit
+    public static final int MAX_POINTS = 1 << 24;
+
+    // Largest message accepted, a SOLVE request with the most points
+    public static final int MAX_MESSAGE = 9 + 8 * MAX_POINTS;
+
+    private Protocol() {
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.server;
+
+/**
+ * Point set received from a client, waiting to be solved
+*/
+class Request {
+    final Connection connection;
+    final int id;
+    final int[] xs;
+    final int[] ys;
+    final long receivedTime;
+
+    Request(Connection connection, int id, int[] xs, int[] ys, long receivedTime) {
+        this.connection = connection;
+        this.id = id;
+        this.xs = xs;
+        this.ys = ys;
+        this.receivedTime = receivedTime;
+    }
+
+    int size() {
+        return xs.length;
+    }
+}
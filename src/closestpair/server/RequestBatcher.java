@@ -0,0 +1,288 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.server;
+
+import closestpair.BatchClosestPair;
+import closestpair.ParallelClosestPair;
+import closestpair.PointSet;
+import closestpair.result.ClosestPairResult;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the requests of all connections and solves them in batches.
+ * When a request arrives, the batcher waits up to the maximum delay for more requests, until the batch has the maximum
+ * number of requests or points, and solves all of them with one call to the batch solver. Requests with more points
+ * than a batch can hold are solved alone by the parallel solver on a thread of their own, one at a time.
+ * The queue holds up to two full batches, and at most LARGE_REQUESTS large requests wait or are solved at once. When
+ * either is full, submit blocks the connection until there is room.
+ * Once stopped, every request that was not solved, or is submitted later, is answered with an error.
+*/
+class RequestBatcher implements Runnable {
+    // Large requests that can be waiting or solving at the same time
+    static final int LARGE_REQUESTS = 2;
+    // Time submit waits for room before checking whether the batcher was stopped, in milliseconds
+    private static final long SUBMIT_WAIT = 100;
+
+    private final BlockingQueue<Request> queue;
+    private final ExecutorService largeExecutor;
+    private final Semaphore largeRequests = new Semaphore(LARGE_REQUESTS);
+    private final BatchClosestPair batchSolver;
+    private final ParallelClosestPair largeSolver;
+    private final int maxRequests;
+    private final int maxPoints;
+    private final long maxDelay;
+    private volatile boolean running = true;
+
+    // Buffers of the current batch, reused between batches
+    private final ArrayList<Request> batch = new ArrayList<>();
+    private int[] xs = new int[1024];
+    private int[] ys = new int[1024];
+    private int[] offsets;
+    private int[] firsts;
+    private int[] seconds;
+    private long[] distances;
+    private long[] iterations;
+
+    RequestBatcher(BatchClosestPair batchSolver, ParallelClosestPair largeSolver, int maxRequests, int maxPoints, long maxDelay) {
+        this.batchSolver = batchSolver;
+        this.largeSolver = largeSolver;
+        this.maxRequests = maxRequests;
+        this.maxPoints = maxPoints;
+        this.maxDelay = maxDelay;
+        this.queue = new ArrayBlockingQueue<>(2 * maxRequests);
+        this.largeExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "closestpair-large");
+            thread.setDaemon(true);
+
+            return thread;
+        });
+        this.offsets = new int[maxRequests + 1];
+        this.firsts = new int[maxRequests];
+        this.seconds = new int[maxRequests];
+        this.distances = new long[maxRequests];
+        this.iterations = new long[maxRequests];
+    }
+
+    /**
+     * Queues a request, waiting while the queue is full. Requests submitted after stop are answered with an error.
+    */
+    void submit(Request request) throws InterruptedException {
+        if (!running) {
+            reject(request);
+            return;
+        }
+
+        if (request.size() <= maxPoints) {
+            // Waits in steps, so that a stop is noticed even if the queue stays full
+            while (!queue.offer(request, SUBMIT_WAIT, TimeUnit.MILLISECONDS)) {
+                if (!running) {
+                    reject(request);
+                    return;
+                }
+            }
+
+            // The batcher may have emptied the queue for the last time before the request was added
+            if (!running && queue.remove(request))
+                reject(request);
+
+            return;
+        }
+
+        while (!largeRequests.tryAcquire(SUBMIT_WAIT, TimeUnit.MILLISECONDS)) {
+            if (!running) {
+                reject(request);
+                return;
+            }
+        }
+
+        try {
+            largeExecutor.execute(new LargeRequest(request));
+        } catch (RejectedExecutionException e) {
+            largeRequests.release();
+            reject(request);
+        }
+    }
+
+    /**
+     * Stops the batcher. Large requests that were not started are answered with an error here, and the queued requests
+     * by the batcher thread when it ends.
+    */
+    void stop() {
+        running = false;
+        List<Runnable> waiting = largeExecutor.shutdownNow();
+
+        for (Runnable task : waiting) {
+            reject(((LargeRequest) task).request);
+            largeRequests.release();
+        }
+    }
+
+    @Override
+    public void run() {
+        // Request taken from the queue that did not fit in the last batch
+        Request pending = null;
+
+        while (running) {
+            try {
+                Request first = pending != null ? pending : queue.poll(100, TimeUnit.MILLISECONDS);
+                pending = null;
+
+                if (first == null)
+                    continue;
+
+                // Waits a little for more requests to fill the batch
+                batch.add(first);
+                int points = first.size();
+                long deadline = System.nanoTime() + maxDelay;
+
+                while (batch.size() < maxRequests) {
+                    Request next = queue.peek();
+
+                    if (next == null) {
+                        long wait = deadline - System.nanoTime();
+                        next = wait > 0 ? queue.poll(wait, TimeUnit.NANOSECONDS) : null;
+
+                        if (next == null)
+                            break;
+
+                        if (points + next.size() > maxPoints) {
+                            pending = next;
+                            break;
+                        }
+                    } else if (points + next.size() > maxPoints) {
+                        break;
+                    } else {
+                        queue.poll();
+                    }
+
+                    batch.add(next);
+                    points += next.size();
+                }
+
+                solveBatch();
+            } catch (InterruptedException e) {
+                break;
+            } catch (Throwable e) {
+                // Errors such as running out of memory fail the batch but not the batcher
+                for (Request request : batch)
+                    request.connection.sendError(request.id, e.toString());
+
+                batch.clear();
+            }
+        }
+
+        // Answers the requests that were not solved
+        if (pending != null)
+            batch.add(pending);
+
+        queue.drainTo(batch);
+
+        for (Request request : batch)
+            reject(request);
+
+        batch.clear();
+    }
+
+    private static void reject(Request request) {
+        request.connection.sendError(request.id, "The server is closing");
+    }
+
+    private void solveBatch() {
+        int count = batch.size();
+
+        if (count == 0)
+            return;
+
+        // Packs the point sets one after the other
+        int points = 0;
+
+        for (Request request : batch)
+            points += request.size();
+
+        if (xs.length < points) {
+            xs = new int[Math.max(points, xs.length * 2)];
+            ys = new int[xs.length];
+        }
+
+        int position = 0;
+
+        for (int i = 0; i < count; i++) {
+            Request request = batch.get(i);
+            offsets[i] = position;
+            System.arraycopy(request.xs, 0, xs, position, request.size());
+            System.arraycopy(request.ys, 0, ys, position, request.size());
+            position += request.size();
+        }
+
+        offsets[count] = position;
+        batchSolver.closestPairs(xs, ys, offsets, count, firsts, seconds, distances, iterations);
+
+        for (int i = 0; i < count; i++) {
+            Request request = batch.get(i);
+            request.connection.sendResult(request, firsts[i], seconds[i], distances[i], iterations[i]);
+        }
+
+        batch.clear();
+    }
+
+    private void solveAlone(Request request) {
+        PointSet points;
+        ClosestPairResult result;
+
+        try {
+            points = new PointSet(request.xs.clone(), request.ys.clone(), request.size());
+            result = largeSolver.closestPair(points);
+        } catch (Throwable e) {
+            request.connection.sendError(request.id, e.toString());
+            return;
+        }
+
+        if (result.getIndex1() < 0) {
+            request.connection.sendResult(request, -1, -1, result.getDistance(), result.getIterations());
+            return;
+        }
+
+        // The solver sorted its copy, so the pair is mapped back to positions in the request
+        int index1 = indexOf(request, points.getX(result.getIndex1()), points.getY(result.getIndex1()), -1);
+        int index2 = indexOf(request, points.getX(result.getIndex2()), points.getY(result.getIndex2()), index1);
+        request.connection.sendResult(request, Math.min(index1, index2), Math.max(index1, index2), result.getDistance(), result.getIterations());
+    }
+
+    private static int indexOf(Request request, int x, int y, int excluded) {
+        for (int i = 0; i < request.size(); i++)
+            if (i != excluded && request.xs[i] == x && request.ys[i] == y)
+                return i;
+
+        return -1;
+    }
+
+    /**
+     * Solves a large request on the large executor. Kept as a class so that stop can answer the ones that never started.
+    */
+    private class LargeRequest implements Runnable {
+        private final Request request;
+
+        LargeRequest(Request request) {
+            this.request = request;
+        }
+
+        @Override
+        public void run() {
+            try {
+                solveAlone(request);
+            } finally {
+                largeRequests.release();
+            }
+        }
+    }
+}
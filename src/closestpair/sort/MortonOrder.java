@@ -0,0 +1,79 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.sort;
+
+import closestpair.PointSet;
+import closestpair.result.ReorderResult;
+
+/**
+ * Orders points along the Z-order curve, whose code interleaves the bits of both coordinates. Points that are close
+ * in the plane are mostly close in the order, so code that looks up points near each other reads nearby memory.
+*/
+public class MortonOrder {
+    /**
+     * Copies a point set in Z-order. The codes of the points relative to their bounding box are radix sorted together
+     * with the index of each point, which is kept to map results back to the original set.
+    */
+    public static ReorderResult reorder(PointSet points) {
+        long startTime = System.nanoTime();
+        int n = points.size();
+        int[] xs = points.getXs();
+        int[] ys = points.getYs();
+        int[] order = new int[n];
+        long iterations = sort(xs, ys, n, order);
+        int[] sortedXs = new int[n];
+        int[] sortedYs = new int[n];
+
+        for (int i = 0; i < n; i++) {
+            sortedXs[i] = xs[order[i]];
+            sortedYs[i] = ys[order[i]];
+        }
+
+        return new ReorderResult(new PointSet(sortedXs, sortedYs, n), order, iterations + n, System.nanoTime() - startTime);
+    }
+
+    /**
+     * Writes to order the indices of the first n points in Z-order. Returns the number of iterations.
+    */
+    public static long sort(int[] xs, int[] ys, int n, int[] order) {
+        long minX = Integer.MAX_VALUE;
+        long minY = Integer.MAX_VALUE;
+
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+        }
+
+        long[] codes = new long[n];
+
+        for (int i = 0; i < n; i++) {
+            codes[i] = encode(xs[i] - minX, ys[i] - minY);
+            order[i] = i;
+        }
+
+        return 2L * n + RadixKeySorter.sort(codes, order, n);
+    }
+
+    /**
+     * Z-order code of 2 unsigned 32 bit values, with the bits of x in the even positions and those of y in the odd ones
+    */
+    public static long encode(long x, long y) {
+        return interleave(x) | interleave(y) << 1;
+    }
+
+    /**
+     * Spreads the low 32 bits of a value to the even bits of a long
+    */
+    public static long interleave(long value) {
+        value &= 0xFFFFFFFFL;
+        value = (value | value << 16) & 0x0000FFFF0000FFFFL;
+        value = (value | value << 8) & 0x00FF00FF00FF00FFL;
+        value = (value | value << 4) & 0x0F0F0F0F0F0F0F0FL;
+        value = (value | value << 2) & 0x3333333333333333L;
+        value = (value | value << 1) & 0x5555555555555555L;
+
+        return value;
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.sort;
+
+import closestpair.PointSet;
+import closestpair.result.ExecutionResult;
+import java.util.Arrays;
+
+/**
+ * Sorts packed keys with Arrays.parallelSort. Already ordered sets are detected while packing and left as they are.
+*/
+public class ParallelKeySorter implements PointSorter {
+    @Override
+    public ExecutionResult sort(PointSet points) {
+        long start = System.nanoTime();
+        int n = points.size();
+
+        if (points.isSorted())
+            return new ExecutionResult(0, System.nanoTime() - start);
+
+        long[] keys = new long[n];
+
+        if (PointKeys.pack(points, keys)) {
+            points.setSorted(true);
+            return new ExecutionResult(n, System.nanoTime() - start);
+        }
+
+        Arrays.parallelSort(keys, 0, n);
+        PointKeys.unpack(keys, points);
+        points.setSorted(true);
+
+        return new ExecutionResult(3L * n, System.nanoTime() - start);
+    }
+
+    @Override
+    public String getName() {
+        return "parallel";
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.sort;
+
+import closestpair.PointSet;
+
+/**
+ * Packs the coordinates of a point into a single long, so that comparing keys as signed longs orders points by x and then by y
+*/
+public class PointKeys {
+    private PointKeys() {
+    }
+
+    /**
+     * Packs x in the upper half and y, with its sign bit flipped, in the lower half
+    */
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | ((y ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+
+    public static int unpackX(long key) {
+        return (int) (key >> 32);
+    }
+
+    public static int unpackY(long key) {
+        return (int) key ^ Integer.MIN_VALUE;
+    }
+
+    /**
+     * Packs all points of a set into an array of keys. Returns true if the keys are already in order.
+    */
+    public static boolean pack(PointSet points, long[] keys) {
+        int[] xs = points.getXs();
+        int[] ys = points.getYs();
+        boolean sorted = true;
+        long previous = Long.MIN_VALUE;
+
+        for (int i = 0; i < points.size(); i++) {
+            long key = pack(xs[i], ys[i]);
+            sorted &= previous <= key;
+            keys[i] = key;
+            previous = key;
+        }
+
+        return sorted;
+    }
+
+    /**
+     * Writes keys back to the coordinates of a point set
+    */
+    public static void unpack(long[] keys, PointSet points) {
+        int[] xs = points.getXs();
+        int[] ys = points.getYs();
+
+        for (int i = 0; i < points.size(); i++) {
+            xs[i] = unpackX(keys[i]);
+            ys[i] = unpackY(keys[i]);
+        }
+    }
+}
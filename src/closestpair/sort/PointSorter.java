@@ -0,0 +1,33 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.sort;
+
+import closestpair.PointSet;
+import closestpair.result.ExecutionResult;
+
+/**
+ * Strategy for sorting a point set by x, and by y when x values are equal
+*/
+public interface PointSorter {
+    // Sorter used by Point2D.sort
+    PointSorter DEFAULT = new ParallelKeySorter();
+
+    /**
+     * Sorts a point set in place. Returns the iterations and the elapsed time, which includes packing and unpacking the keys.
+    */
+    ExecutionResult sort(PointSet points);
+
+    /**
+     * Name used for the output files of the benchmark
+    */
+    String getName();
+
+    /**
+     * All available sorters
+    */
+    static PointSorter[] all() {
+        return new PointSorter[] { new ParallelKeySorter(), new RadixKeySorter(), new PresortedRunSorter() };
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.sort;
+
+import closestpair.PointSet;
+import closestpair.result.ExecutionResult;
+
+/**
+ * Stable natural merge sort of packed keys. It finds the runs that are already in order and only merges those,
+ * so ordered files take a single linear pass and files made of a few sorted chunks take a few passes.
+*/
+public class PresortedRunSorter implements PointSorter {
+    @Override
+    public ExecutionResult sort(PointSet points) {
+        long start = System.nanoTime();
+        int n = points.size();
+
+        if (points.isSorted())
+            return new ExecutionResult(0, System.nanoTime() - start);
+
+        long[] keys = new long[n];
+
+        if (PointKeys.pack(points, keys)) {
+            points.setSorted(true);
+            return new ExecutionResult(n, System.nanoTime() - start);
+        }
+
+        // Finds where each run ends. Strictly descending runs are reversed, which keeps the sort stable.
+        int[] runs = new int[n + 1];
+        int runCount = 0;
+        int i = 0;
+
+        while (i < n) {
+            int j = i + 1;
+
+            if (j < n && keys[j] < keys[i]) {
+                while (j < n && keys[j] < keys[j - 1])
+                    j++;
+
+                reverse(keys, i, j);
+            } else {
+                while (j < n && keys[j - 1] <= keys[j])
+                    j++;
+            }
+
+            runs[++runCount] = j;
+            i = j;
+        }
+
+        long iterations = 2L * n;
+        long[] buffer = new long[n];
+
+        // Merges consecutive pairs of runs until only one is left
+        while (runCount > 1) {
+            int merged = 0;
+
+            for (int r = 0; r < runCount; r += 2) {
+                int from = runs[r];
+                int mid = runs[r + 1];
+                int to = r + 2 <= runCount ? runs[r + 2] : mid;
+                merge(keys, buffer, from, mid, to);
+                runs[++merged] = to;
+            }
+
+            iterations += n;
+            runCount = merged;
+            long[] temp = keys;
+            keys = buffer;
+            buffer = temp;
+        }
+
+        PointKeys.unpack(keys, points);
+        points.setSorted(true);
+
+        return new ExecutionResult(iterations + n, System.nanoTime() - start);
+    }
+
+    @Override
+    public String getName() {
+        return "runs";
+    }
+
+    /**
+     * Merges two consecutive runs into the same range of the output. Equal keys are taken from the left run first.
+    */
+    private static void merge(long[] keys, long[] output, int from, int mid, int to) {
+        int i = from;
+        int j = mid;
+        int k = from;
+
+        while (i < mid && j < to)
+            output[k++] = keys[j] < keys[i] ? keys[j++] : keys[i++];
+
+        System.arraycopy(keys, i, output, k, mid - i);
+        k += mid - i;
+        System.arraycopy(keys, j, output, k, to - j);
+    }
+
+    private static void reverse(long[] keys, int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            long temp = keys[i];
+            keys[i] = keys[j];
+            keys[j] = temp;
+        }
+    }
+}
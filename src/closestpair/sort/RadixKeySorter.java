@@ -0,0 +1,146 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.sort;
+
+import closestpair.PointSet;
+import closestpair.result.ExecutionResult;
+import java.util.Arrays;
+
+/**
+ * Sorts packed keys with a least significant digit radix sort of 16 bit digits. Digits that are the same for every key are skipped.
+*/
+public class RadixKeySorter implements PointSorter {
+    private static final int BITS = 16;
+    private static final int RADIX = 1 << BITS;
+
+    @Override
+    public ExecutionResult sort(PointSet points) {
+        long start = System.nanoTime();
+        int n = points.size();
+
+        if (points.isSorted())
+            return new ExecutionResult(0, System.nanoTime() - start);
+
+        long[] keys = new long[n];
+
+        if (PointKeys.pack(points, keys)) {
+            points.setSorted(true);
+            return new ExecutionResult(n, System.nanoTime() - start);
+        }
+
+        // Flips the sign bit so that keys can be sorted as unsigned values
+        for (int i = 0; i < n; i++)
+            keys[i] ^= Long.MIN_VALUE;
+
+        long iterations = 2L * n;
+        long[] buffer = new long[n];
+        int[] counts = new int[RADIX];
+
+        for (int shift = 0; shift < Long.SIZE; shift += BITS) {
+            // Counts the keys for each value of the digit
+            Arrays.fill(counts, 0);
+
+            for (int i = 0; i < n; i++)
+                counts[(int) (keys[i] >>> shift) & (RADIX - 1)]++;
+
+            iterations += n;
+
+            // If all keys have the same digit, the pass would not change anything
+            if (counts[(int) (keys[0] >>> shift) & (RADIX - 1)] == n)
+                continue;
+
+            // Turns the counts into positions and moves the keys to the buffer
+            int position = 0;
+
+            for (int digit = 0; digit < RADIX; digit++) {
+                int count = counts[digit];
+                counts[digit] = position;
+                position += count;
+            }
+
+            for (int i = 0; i < n; i++)
+                buffer[counts[(int) (keys[i] >>> shift) & (RADIX - 1)]++] = keys[i];
+
+            iterations += n;
+            long[] temp = keys;
+            keys = buffer;
+            buffer = temp;
+        }
+
+        for (int i = 0; i < n; i++)
+            keys[i] ^= Long.MIN_VALUE;
+
+        PointKeys.unpack(keys, points);
+        points.setSorted(true);
+
+        return new ExecutionResult(iterations + n, System.nanoTime() - start);
+    }
+
+    /**
+     * Sorts the first n keys as unsigned values, moving the value at each position along with its key. Returns the number of iterations.
+    */
+    public static long sort(long[] keys, int[] values, int n) {
+        if (n < 2)
+            return n;
+
+        long iterations = 0;
+        long[] keyBuffer = new long[n];
+        int[] valueBuffer = new int[n];
+        long[] fromKeys = keys;
+        int[] fromValues = values;
+        int[] counts = new int[RADIX];
+
+        for (int shift = 0; shift < Long.SIZE; shift += BITS) {
+            // Counts the keys for each value of the digit
+            Arrays.fill(counts, 0);
+
+            for (int i = 0; i < n; i++)
+                counts[(int) (fromKeys[i] >>> shift) & (RADIX - 1)]++;
+
+            iterations += n;
+
+            // If all keys have the same digit, the pass would not change anything
+            if (counts[(int) (fromKeys[0] >>> shift) & (RADIX - 1)] == n)
+                continue;
+
+            // Turns the counts into positions and moves the keys and values to the buffers
+            int position = 0;
+
+            for (int digit = 0; digit < RADIX; digit++) {
+                int count = counts[digit];
+                counts[digit] = position;
+                position += count;
+            }
+
+            for (int i = 0; i < n; i++) {
+                int to = counts[(int) (fromKeys[i] >>> shift) & (RADIX - 1)]++;
+                keyBuffer[to] = fromKeys[i];
+                valueBuffer[to] = fromValues[i];
+            }
+
+            iterations += n;
+            long[] tempKeys = fromKeys;
+            fromKeys = keyBuffer;
+            keyBuffer = tempKeys;
+            int[] tempValues = fromValues;
+            fromValues = valueBuffer;
+            valueBuffer = tempValues;
+        }
+
+        // After an odd number of passes the sorted keys are in the buffers
+        if (fromKeys != keys) {
+            System.arraycopy(fromKeys, 0, keys, 0, n);
+            System.arraycopy(fromValues, 0, values, 0, n);
+            iterations += n;
+        }
+
+        return iterations;
+    }
+
+    @Override
+    public String getName() {
+        return "radix";
+    }
+}
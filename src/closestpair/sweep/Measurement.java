@@ -0,0 +1,77 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.sweep;
+
+import closestpair.io.Distribution;
+
+/**
+ * Times and iterations of every repetition of one solver on inputs of one size and distribution
+*/
+public class Measurement {
+    private final String solver;
+    private final Distribution distribution;
+    private final int size;
+    private final long[] times;
+    private final long[] iterations;
+
+    public Measurement(String solver, Distribution distribution, int size, long[] times, long[] iterations) {
+        this.solver = solver;
+        this.distribution = distribution;
+        this.size = size;
+        this.times = times;
+        this.iterations = iterations;
+    }
+
+    public String getSolver() {
+        return solver;
+    }
+
+    public Distribution getDistribution() {
+        return distribution;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getRepetitions() {
+        return times.length;
+    }
+
+    public long[] getTimes() {
+        return times;
+    }
+
+    public long[] getIterations() {
+        return iterations;
+    }
+
+    public double getMedianTime() {
+        return Statistics.median(times);
+    }
+
+    public long getP95Time() {
+        return Statistics.percentile(times, 0.95);
+    }
+
+    public double getMeanTime() {
+        return Statistics.mean(times);
+    }
+
+    /**
+     * 95% confidence interval of the median time
+    */
+    public long[] getMedianTimeInterval() {
+        return Statistics.medianInterval(times);
+    }
+
+    public double getMedianIterations() {
+        return Statistics.median(iterations);
+    }
+
+    public double getMeanIterations() {
+        return Statistics.mean(iterations);
+    }
+}
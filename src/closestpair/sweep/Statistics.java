@@ -0,0 +1,97 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.sweep;
+
+import java.util.Arrays;
+
+/**
+ * Summary statistics of repeated measurements. Methods take the samples in any order and do not modify them.
+*/
+public class Statistics {
+    private Statistics() {
+    }
+
+    public static double mean(long[] samples) {
+        double sum = 0;
+
+        for (long sample : samples)
+            sum += sample;
+
+        return sum / samples.length;
+    }
+
+    public static double median(long[] samples) {
+        long[] sorted = sorted(samples);
+        int n = sorted.length;
+
+        return n % 2 == 1 ? sorted[n / 2] : (sorted[n / 2 - 1] + sorted[n / 2]) / 2.0;
+    }
+
+    /**
+     * Smallest sample that is not smaller than the given fraction of the samples (nearest rank)
+    */
+    public static long percentile(long[] samples, double fraction) {
+        long[] sorted = sorted(samples);
+        int rank = (int) Math.ceil(fraction * sorted.length);
+
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    /**
+     * 95% confidence interval of the median, as the pair of order statistics given by the normal approximation of the
+     * binomial distribution. It does not assume anything about the distribution of the samples, which is rarely normal
+     * for running times. With few samples the interval is the whole range.
+    */
+    public static long[] medianInterval(long[] samples) {
+        long[] sorted = sorted(samples);
+        int n = sorted.length;
+        double spread = 1.96 * Math.sqrt(n) / 2;
+        int low = (int) Math.floor(n / 2.0 - spread);
+        int high = (int) Math.ceil(n / 2.0 + 1 + spread);
+
+        return new long[] { sorted[Math.max(1, low) - 1], sorted[Math.min(n, high) - 1] };
+    }
+
+    /**
+     * Exponent b of the power law a * size^b fitted by least squares on a log-log scale, or NaN with less than 2 positive points
+    */
+    public static double growthExponent(long[] sizes, double[] values) {
+        int count = 0;
+        double sumX = 0;
+        double sumY = 0;
+        double sumXX = 0;
+        double sumXY = 0;
+
+        for (int i = 0; i < sizes.length; i++) {
+            if (sizes[i] <= 0 || !(values[i] > 0))
+                continue;
+
+            double x = Math.log(sizes[i]);
+            double y = Math.log(values[i]);
+            count++;
+            sumX += x;
+            sumY += y;
+            sumXX += x * x;
+            sumXY += x * y;
+        }
+
+        double denominator = count * sumXX - sumX * sumX;
+
+        if (count < 2 || denominator == 0)
+            return Double.NaN;
+
+        return (count * sumXY - sumX * sumY) / denominator;
+    }
+
+    private static long[] sorted(long[] samples) {
+        if (samples.length == 0)
+            throw new IllegalArgumentException("There are no samples");
+
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+
+        return sorted;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.sweep;
+
+import closestpair.io.Distribution;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Options of a benchmark sweep, parsed from command line arguments of the form --name value
+*/
+public class SweepOptions {
+    public static final String USAGE = String.join("\n",
+        "Options:",
+        "  --sizes 1000,10000           input sizes, or a doubling range as from..to (default 2..50000, like ClosestPair.main)",
+        "  --distributions UNIFORM,LINE distributions of DatasetGenerator (default UNIFORM)",
+        "  --solvers recursive,sweep    solvers to run: " + String.join(", ", SweepRunner.SOLVERS) + " (default recursive,brute_force)",
+        "  --repetitions 10             measured runs of each configuration (default 10)",
+        "  --warmup 2                   runs before measuring, which are discarded (default 2)",
+        "  --seed 42                    seed of the inputs, which are the same for every solver (default 42)",
+        "  --square                     use a square range instead of the flat one of InputFileHandler.create",
+        "  --presorted                  sort the inputs before timing the solvers, like ClosestPair.main",
+        "  --quadratic-limit 100000     largest size for brute force (default 100000)",
+        "  --parallel 1                 configurations run at the same time (default 1)",
+        "  --fork                       run each configuration in its own JVM",
+        "  --jvm-args \"-Xmx4g\"          arguments of the forked JVMs",
+        "  --pin                        pin each forked JVM to its own core with taskset",
+        "  --output output              directory of the output files (default output)");
+
+    int[] sizes = doubling(2, 50000);
+    Distribution[] distributions = { Distribution.UNIFORM };
+    String[] solvers = { "recursive", "brute_force" };
+    int repetitions = 10;
+    int warmup = 2;
+    long seed = 42;
+    boolean square;
+    boolean presorted;
+    int quadraticLimit = 100000;
+    int parallel = 1;
+    boolean fork;
+    String jvmArgs = "";
+    boolean pin;
+    String output = "output";
+
+    // Set in forked JVMs, which print their measurements instead of writing files
+    boolean child;
+
+    public static SweepOptions parse(String[] args) {
+        SweepOptions options = new SweepOptions();
+
+        for (int i = 0; i < args.length; i++) {
+            String name = args[i];
+
+            switch (name) {
+                case "--square": options.square = true; continue;
+                case "--presorted": options.presorted = true; continue;
+                case "--fork": options.fork = true; continue;
+                case "--pin": options.pin = true; continue;
+                case "--child": options.child = true; continue;
+                default:
+            }
+
+            if (i + 1 >= args.length)
+                throw new IllegalArgumentException("Missing value of " + name);
+
+            String value = args[++i];
+
+            switch (name) {
+                case "--sizes": options.sizes = sizes(value); break;
+                case "--distributions": options.distributions = distributions(value); break;
+                case "--solvers": options.solvers = solvers(value); break;
+                case "--repetitions": options.repetitions = positive(name, value); break;
+                case "--warmup": options.warmup = Integer.parseInt(value); break;
+                case "--seed": options.seed = Long.parseLong(value); break;
+                case "--quadratic-limit": options.quadraticLimit = Integer.parseInt(value); break;
+                case "--parallel": options.parallel = positive(name, value); break;
+                case "--jvm-args": options.jvmArgs = value; break;
+                case "--output": options.output = value; break;
+                default: throw new IllegalArgumentException("Unknown option " + name);
+            }
+        }
+
+        return options;
+    }
+
+    /**
+     * Arguments that make a forked JVM run one configuration with the same settings
+    */
+    List<String> childArgs(String solver, Distribution distribution, int size) {
+        List<String> args = new ArrayList<>(Arrays.asList(
+            "--child", "--solvers", solver, "--distributions", distribution.name(), "--sizes", Integer.toString(size),
+            "--repetitions", Integer.toString(repetitions), "--warmup", Integer.toString(warmup), "--seed", Long.toString(seed)));
+
+        if (square)
+            args.add("--square");
+
+        if (presorted)
+            args.add("--presorted");
+
+        return args;
+    }
+
+    /**
+     * Parses a list of sizes, or a range from..to of sizes that double from the first one
+    */
+    private static int[] sizes(String value) {
+        if (value.contains("..")) {
+            String[] range = value.split("\\.\\.");
+
+            return doubling(Integer.parseInt(range[0].trim()), Integer.parseInt(range[1].trim()));
+        }
+
+        return Arrays.stream(value.split(",")).mapToInt(size -> positive("--sizes", size.trim())).toArray();
+    }
+
+    private static int[] doubling(int from, int to) {
+        if (from < 1 || to < from)
+            throw new IllegalArgumentException("Invalid range of sizes " + from + ".." + to);
+
+        List<Integer> sizes = new ArrayList<>();
+
+        for (long size = from; size <= to; size *= 2)
+            sizes.add((int) size);
+
+        return sizes.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static Distribution[] distributions(String value) {
+        return Arrays.stream(value.split(",")).map(name -> Distribution.valueOf(name.trim().toUpperCase())).toArray(Distribution[]::new);
+    }
+
+    private static String[] solvers(String value) {
+        String[] solvers = value.split(",");
+
+        for (int i = 0; i < solvers.length; i++) {
+            solvers[i] = solvers[i].trim();
+
+            if (!Arrays.asList(SweepRunner.SOLVERS).contains(solvers[i]))
+                throw new IllegalArgumentException("Unknown solver " + solvers[i]);
+        }
+
+        return solvers;
+    }
+
+    private static int positive(String name, String value) {
+        int number = Integer.parseInt(value);
+
+        if (number < 1)
+            throw new IllegalArgumentException(name + " must be positive");
+
+        return number;
+    }
+}
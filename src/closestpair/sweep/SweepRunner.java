@@ -0,0 +1,305 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.sweep;
+
+import closestpair.ApproximateClosestPair;
+import closestpair.ClosestPairSolver;
+import closestpair.GridClosestPair;
+import closestpair.ParallelClosestPair;
+import closestpair.Point2D;
+import closestpair.PointSet;
+import closestpair.SweepClosestPair;
+import closestpair.io.DatasetGenerator;
+import closestpair.io.Distribution;
+import closestpair.io.OutputFileHandler;
+import closestpair.io.RecordFormat;
+import closestpair.io.RecordWriter;
+import closestpair.result.ClosestPairResult;
+import closestpair.util.Hashing;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs every solver on inputs of every size and distribution, and summarizes the running times.
+ * Inputs are generated in memory from a seed derived from the sweep seed, the distribution, the size and the
+ * repetition, so every solver gets the same inputs and a sweep can be repeated exactly. Each run gets its own copy.
+ *
+ * Configurations, which are a solver, a distribution and a size, can run at the same time, either on threads of this
+ * JVM or each one in its own JVM. Forked JVMs don't share the heap, the JIT or the garbage collector, and with --pin
+ * each one is bound to its own core. Concurrent runs still share caches and memory bandwidth, so timings are most
+ * reliable with --parallel 1.
+ *
+ * For each solver, output/{solver}.txt has the same columns as the files of ClosestPair.main, for the first
+ * distribution, so plot_benchmark.py plots it. Other distributions go to output/{solver}_{distribution}.txt.
+ * output/summary_{solver}_{distribution}.csv has the median, 95th percentile, mean and 95% confidence interval of the
+ * median time of each size, and the fitted growth exponents are printed at the end.
+*/
+public class SweepRunner {
+    public static final String[] SOLVERS = { "recursive", "brute_force", "parallel", "grid", "sweep", "approximate" };
+
+    // Prefix of the lines forked JVMs print for each run
+    private static final String RESULT = "result ";
+
+    private final SweepOptions options;
+
+    public SweepRunner(SweepOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws Exception {
+        SweepOptions options;
+
+        try {
+            options = SweepOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(SweepOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        SweepRunner runner = new SweepRunner(options);
+
+        if (options.child) {
+            Measurement measurement = runner.measure(options.solvers[0], options.distributions[0], options.sizes[0]);
+
+            for (int i = 0; i < measurement.getRepetitions(); i++)
+                System.out.println(RESULT + measurement.getTimes()[i] + " " + measurement.getIterations()[i]);
+
+            return;
+        }
+
+        runner.write(runner.run());
+    }
+
+    /**
+     * Runs every configuration and returns the measurements by solver, distribution and size
+    */
+    public Map<String, Map<Distribution, TreeMap<Integer, Measurement>>> run() throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(options.parallel);
+        BlockingQueue<Integer> cores = new ArrayBlockingQueue<>(options.parallel);
+
+        for (int i = 0; i < options.parallel; i++)
+            cores.add(i % Runtime.getRuntime().availableProcessors());
+
+        List<Future<Measurement>> futures = new ArrayList<>();
+
+        for (String solver : options.solvers) {
+            for (Distribution distribution : options.distributions) {
+                for (int size : options.sizes) {
+                    if (solver.equals("brute_force") && size > options.quadraticLimit)
+                        continue;
+
+                    futures.add(executor.submit(() -> {
+                        if (!options.fork)
+                            return measure(solver, distribution, size);
+
+                        // Each forked JVM takes a core while it runs
+                        int core = cores.take();
+
+                        try {
+                            return fork(solver, distribution, size, core);
+                        } finally {
+                            cores.add(core);
+                        }
+                    }));
+                }
+            }
+        }
+
+        executor.shutdown();
+        Map<String, Map<Distribution, TreeMap<Integer, Measurement>>> measurements = new TreeMap<>();
+
+        for (Future<Measurement> future : futures) {
+            Measurement measurement = future.get();
+            System.out.printf("%-12s %-18s %10d  median %12.0f ns  p95 %12d ns%n", measurement.getSolver(), measurement.getDistribution(), measurement.getSize(), measurement.getMedianTime(), measurement.getP95Time());
+            measurements.computeIfAbsent(measurement.getSolver(), solver -> new TreeMap<>())
+                .computeIfAbsent(measurement.getDistribution(), distribution -> new TreeMap<>())
+                .put(measurement.getSize(), measurement);
+        }
+
+        return measurements;
+    }
+
+    /**
+     * Runs one configuration in this JVM. Time is measured around the whole call, so it includes sorting for solvers
+     * that sort the points, unless the inputs are presorted.
+    */
+    public Measurement measure(String name, Distribution distribution, int size) {
+        ClosestPairSolver solver = solver(name);
+        long[] times = new long[options.repetitions];
+        long[] iterations = new long[options.repetitions];
+
+        try {
+            for (int run = -options.warmup; run < options.repetitions; run++) {
+                int repetition = Math.floorMod(run, options.repetitions);
+                PointSet points = input(distribution, size, repetition);
+
+                if (options.presorted)
+                    Point2D.sort(points);
+
+                long startTime = System.nanoTime();
+                ClosestPairResult result = solver.closestPair(points);
+                long time = System.nanoTime() - startTime;
+
+                if (run >= 0) {
+                    times[run] = time;
+                    iterations[run] = result.getIterations();
+                }
+            }
+        } finally {
+            if (solver instanceof ParallelClosestPair)
+                ((ParallelClosestPair) solver).shutdown();
+        }
+
+        return new Measurement(name, distribution, size, times, iterations);
+    }
+
+    /**
+     * Runs one configuration in a new JVM with the same class path, on the given core if pinning
+    */
+    private Measurement fork(String solver, Distribution distribution, int size, int core) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+
+        if (options.pin)
+            command.addAll(Arrays.asList("taskset", "-c", Integer.toString(core)));
+
+        command.add(new File(System.getProperty("java.home"), "bin" + File.separator + "java").getPath());
+
+        if (!options.jvmArgs.trim().isEmpty())
+            command.addAll(Arrays.asList(options.jvmArgs.trim().split("\\s+")));
+
+        command.addAll(Arrays.asList("-cp", System.getProperty("java.class.path"), SweepRunner.class.getName()));
+        command.addAll(options.childArgs(solver, distribution, size));
+
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        long[] times = new long[options.repetitions];
+        long[] iterations = new long[options.repetitions];
+        int runs = 0;
+
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line = in.readLine();
+
+            while (line != null) {
+                if (line.startsWith(RESULT) && runs < times.length) {
+                    String[] values = line.substring(RESULT.length()).split(" ");
+                    times[runs] = Long.parseLong(values[0]);
+                    iterations[runs] = Long.parseLong(values[1]);
+                    runs++;
+                }
+
+                line = in.readLine();
+            }
+        }
+
+        int status = process.waitFor();
+
+        if (status != 0 || runs != times.length)
+            throw new IOException("Forked run of " + solver + " on " + size + " " + distribution + " points failed with status " + status);
+
+        return new Measurement(solver, distribution, size, times, iterations);
+    }
+
+    /**
+     * Writes the output files and prints the growth exponents
+    */
+    public void write(Map<String, Map<Distribution, TreeMap<Integer, Measurement>>> measurements) throws IOException {
+        File outdir = new File(options.output);
+
+        if (!outdir.exists())
+            outdir.mkdirs();
+
+        System.out.println();
+        System.out.printf("%-12s %-18s %14s %14s%n", "solver", "distribution", "time exponent", "iterations exponent");
+
+        for (Map.Entry<String, Map<Distribution, TreeMap<Integer, Measurement>>> bySolver : measurements.entrySet()) {
+            String solver = bySolver.getKey();
+
+            for (Map.Entry<Distribution, TreeMap<Integer, Measurement>> byDistribution : bySolver.getValue().entrySet()) {
+                Distribution distribution = byDistribution.getKey();
+                String suffix = distribution == options.distributions[0] ? "" : "_" + distribution.name().toLowerCase();
+                String name = distribution.name().toLowerCase();
+                TreeMap<Integer, Measurement> bySize = byDistribution.getValue();
+
+                // Same columns as ClosestPair.main: size, the time and iterations of each run, and their averages
+                try (OutputFileHandler table = new OutputFileHandler(new File(outdir, solver + suffix + ".txt").getPath(), options.repetitions)) {
+                    for (Measurement measurement : bySize.values()) {
+                        StringBuilder row = new StringBuilder().append(measurement.getSize());
+
+                        for (int i = 0; i < measurement.getRepetitions(); i++)
+                            row.append(' ').append(measurement.getTimes()[i]).append(' ').append(measurement.getIterations()[i]);
+
+                        row.append(' ').append(measurement.getMeanTime()).append(' ').append(measurement.getMeanIterations()).append('\n');
+                        table.write(row.toString());
+                    }
+                }
+
+                try (RecordWriter summary = new RecordWriter(new File(outdir, "summary_" + solver + "_" + name + ".csv").getPath(), RecordFormat.CSV,
+                        "size", "repetitions", "median_time", "p95_time", "mean_time", "ci_low_time", "ci_high_time", "median_iterations")) {
+                    for (Measurement measurement : bySize.values()) {
+                        long[] interval = measurement.getMedianTimeInterval();
+                        summary.put((long) measurement.getSize()).put((long) measurement.getRepetitions())
+                            .put(measurement.getMedianTime()).put(measurement.getP95Time()).put(measurement.getMeanTime())
+                            .put(interval[0]).put(interval[1]).put(measurement.getMedianIterations());
+                        summary.end();
+                    }
+                }
+
+                // Growth exponents of the median time and iterations
+                long[] sizes = new long[bySize.size()];
+                double[] times = new double[sizes.length];
+                double[] iterations = new double[sizes.length];
+                int i = 0;
+
+                for (Measurement measurement : bySize.values()) {
+                    sizes[i] = measurement.getSize();
+                    times[i] = measurement.getMedianTime();
+                    iterations[i] = measurement.getMedianIterations();
+                    i++;
+                }
+
+                System.out.printf("%-12s %-18s %14.3f %14.3f%n", solver, distribution, Statistics.growthExponent(sizes, times), Statistics.growthExponent(sizes, iterations));
+            }
+        }
+    }
+
+    /**
+     * Input of a repetition. The seed only depends on the sweep seed, the distribution, the size and the repetition.
+    */
+    PointSet input(Distribution distribution, int size, int repetition) {
+        long seed = options.seed + Hashing.mix64(((long) distribution.ordinal() << 56) ^ ((long) size << 20) ^ repetition);
+
+        // The flat range is the one of InputFileHandler.create
+        int width = (int) Math.min(1 << 30, Math.max(1, 10L * size));
+        int height = options.square ? width : 20;
+
+        return new DatasetGenerator(distribution, seed, width, height).generate(size);
+    }
+
+    static ClosestPairSolver solver(String name) {
+        switch (name) {
+            case "recursive": return ClosestPairSolver.recursive();
+            case "brute_force": return ClosestPairSolver.bruteForce();
+            case "parallel": return new ParallelClosestPair();
+            case "grid": return new GridClosestPair();
+            case "sweep": return new SweepClosestPair();
+            case "approximate": return new ApproximateClosestPair(0.5);
+            default: throw new IllegalArgumentException("Unknown solver " + name);
+        }
+    }
+}
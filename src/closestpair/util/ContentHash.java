@@ -0,0 +1,81 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.util;
+
+import closestpair.PointSet;
+import closestpair.sort.PointKeys;
+
+/**
+ * 128 bit hash of the contents of a point set that does not depend on the order of the points.
+ * Each point is hashed on its own with two different mixes, and the hashes of all points are added up, so a set can be hashed
+ * in pieces by separate threads and the pieces combined in any order. The number of points is part of the hash.
+*/
+public final class ContentHash {
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+
+    private final long count;
+    private final long low;
+    private final long high;
+
+    public ContentHash(long count, long low, long high) {
+        this.count = count;
+        this.low = low;
+        this.high = high;
+    }
+
+    /**
+     * Hashes a range of points. End is exclusive.
+    */
+    public static ContentHash of(int[] xs, int[] ys, int start, int end) {
+        long low = 0;
+        long high = 0;
+
+        for (int i = start; i < end; i++) {
+            long key = PointKeys.pack(xs[i], ys[i]);
+            low += Hashing.mix64(key);
+            high += Hashing.mix64(key ^ SEED);
+        }
+
+        return new ContentHash(end - start, low, high);
+    }
+
+    public static ContentHash of(PointSet points) {
+        return of(points.getXs(), points.getYs(), 0, points.size());
+    }
+
+    /**
+     * Hash of the union of the points of both hashes
+    */
+    public ContentHash combine(ContentHash other) {
+        return new ContentHash(count + other.count, low + other.low, high + other.high);
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof ContentHash))
+            return false;
+
+        ContentHash other = (ContentHash) o;
+
+        return count == other.count && low == other.low && high == other.high;
+    }
+
+    @Override
+    public int hashCode() {
+        return Hashing.mix(low ^ count);
+    }
+
+    /**
+     * Hexadecimal hash followed by the number of points, usable as a file name
+    */
+    @Override
+    public String toString() {
+        return String.format("%016x%016x-%d", high, low, count);
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.util;
+
+/**
+ * Hash functions for primitive keys
+*/
+public class Hashing {
+    private Hashing() {
+    }
+
+    /**
+     * Mixes all bits of a long into an int using the finalizer of MurmurHash3
+    */
+    public static int mix(long key) {
+        return (int) mix64(key);
+    }
+
+    /**
+     * Mixes all bits of a long using the finalizer of MurmurHash3
+    */
+    public static long mix64(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+
+        return key;
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.util;
+
+import java.util.Arrays;
+
+/**
+ * Binary min heap of ids with long priorities. The position of each id is tracked, so priorities can be changed
+ * and ids removed in logarithmic time.
+*/
+public class IndexedLongHeap {
+    private int[] heap;
+    private long[] priorities;
+
+    // Position of each id in the heap, or -1 if it is not in the heap
+    private int[] positions;
+    private int size;
+
+    public IndexedLongHeap(int capacity) {
+        capacity = Math.max(4, capacity);
+        heap = new int[capacity];
+        priorities = new long[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int id) {
+        return id < positions.length && positions[id] >= 0;
+    }
+
+    /**
+     * Id with the smallest priority. The heap must not be empty.
+    */
+    public int peek() {
+        return heap[0];
+    }
+
+    public long priority(int id) {
+        return priorities[id];
+    }
+
+    /**
+     * Adds an id or changes its priority
+    */
+    public void put(int id, long priority) {
+        if (id >= positions.length) {
+            int capacity = Math.max(id + 1, positions.length + (positions.length >> 1));
+            heap = Arrays.copyOf(heap, capacity);
+            priorities = Arrays.copyOf(priorities, capacity);
+            int old = positions.length;
+            positions = Arrays.copyOf(positions, capacity);
+            Arrays.fill(positions, old, capacity, -1);
+        }
+
+        if (positions[id] < 0) {
+            heap[size] = id;
+            positions[id] = size;
+            priorities[id] = priority;
+            up(size++);
+        } else {
+            long previous = priorities[id];
+            priorities[id] = priority;
+
+            if (priority < previous)
+                up(positions[id]);
+            else
+                down(positions[id]);
+        }
+    }
+
+    /**
+     * Removes an id. Returns false if it was not in the heap.
+    */
+    public boolean remove(int id) {
+        if (!contains(id))
+            return false;
+
+        int position = positions[id];
+        positions[id] = -1;
+        size--;
+
+        if (position < size) {
+            int last = heap[size];
+            heap[position] = last;
+            positions[last] = position;
+            up(position);
+            down(positions[last]);
+        }
+
+        return true;
+    }
+
+    private void up(int position) {
+        int id = heap[position];
+
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+
+            if (priorities[heap[parent]] <= priorities[id])
+                break;
+
+            heap[position] = heap[parent];
+            positions[heap[position]] = position;
+            position = parent;
+        }
+
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    private void down(int position) {
+        int id = heap[position];
+
+        while (true) {
+            int child = 2 * position + 1;
+
+            if (child >= size)
+                break;
+
+            if (child + 1 < size && priorities[heap[child + 1]] < priorities[heap[child]])
+                child++;
+
+            if (priorities[heap[child]] >= priorities[id])
+                break;
+
+            heap[position] = heap[child];
+            positions[heap[position]] = position;
+            position = child;
+        }
+
+        heap[position] = id;
+        positions[id] = position;
+    }
+}
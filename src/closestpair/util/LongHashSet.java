@@ -0,0 +1,105 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.util;
+
+import java.util.Arrays;
+
+/**
+ * Set of long values stored in an open addressing table with linear probing, without an object per value
+*/
+public class LongHashSet {
+    // Marks empty slots. Whether the set contains this value is stored apart.
+    private static final long EMPTY = 0;
+
+    private long[] keys;
+    private int mask;
+    private int size;
+    private boolean containsEmpty;
+
+    public LongHashSet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a value to the set. Returns false if it was already in the set.
+    */
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            if (containsEmpty)
+                return false;
+
+            containsEmpty = true;
+            size++;
+
+            return true;
+        }
+
+        int slot = Hashing.mix(key) & mask;
+
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key)
+                return false;
+
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        size++;
+
+        // Keeps the table at most half full
+        if (2 * size > keys.length)
+            grow();
+
+        return true;
+    }
+
+    public boolean contains(long key) {
+        if (key == EMPTY)
+            return containsEmpty;
+
+        int slot = Hashing.mix(key) & mask;
+
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key)
+                return true;
+
+            slot = (slot + 1) & mask;
+        }
+
+        return false;
+    }
+
+    /**
+     * Removes all values, keeping the table
+    */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+        containsEmpty = false;
+    }
+
+    private void grow() {
+        long[] old = keys;
+        keys = new long[old.length * 2];
+        mask = keys.length - 1;
+
+        for (long key : old) {
+            if (key != EMPTY) {
+                int slot = Hashing.mix(key) & mask;
+
+                while (keys[slot] != EMPTY)
+                    slot = (slot + 1) & mask;
+
+                keys[slot] = key;
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.util;
+
+import java.util.Arrays;
+
+/**
+ * Map from long keys to int values stored in an open addressing table with linear probing.
+ * Slots are stamped with a generation, so clearing the map takes constant time.
+*/
+public class LongIntHashMap {
+    // Value returned for keys that are not in the map
+    public static final int MISSING = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int[] stamps;
+    private int generation = 1;
+    private int mask;
+    private int size;
+
+    public LongIntHashMap(int expectedSize) {
+        allocate(Integer.highestOneBit(Math.max(4, expectedSize * 2 - 1)) << 1);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the value of a key, or MISSING if it is not in the map
+    */
+    public int get(long key) {
+        int slot = Hashing.mix(key) & mask;
+
+        while (stamps[slot] == generation) {
+            if (keys[slot] == key)
+                return values[slot];
+
+            slot = (slot + 1) & mask;
+        }
+
+        return MISSING;
+    }
+
+    /**
+     * Sets the value of a key. Returns the previous value, or MISSING if it was not in the map.
+    */
+    public int put(long key, int value) {
+        int slot = Hashing.mix(key) & mask;
+
+        while (stamps[slot] == generation) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                values[slot] = value;
+
+                return previous;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        stamps[slot] = generation;
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+
+        // Keeps the table at most half full
+        if (2 * size > keys.length)
+            grow();
+
+        return MISSING;
+    }
+
+    /**
+     * Removes a key. Returns its value, or MISSING if it was not in the map.
+    */
+    public int remove(long key) {
+        int slot = Hashing.mix(key) & mask;
+
+        while (stamps[slot] == generation) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                int gap = slot;
+                int next = (gap + 1) & mask;
+
+                // Moves back the following keys of the same probe sequence, so that no key is left behind the empty slot
+                while (stamps[next] == generation) {
+                    int home = Hashing.mix(keys[next]) & mask;
+
+                    if (((next - home) & mask) >= ((next - gap) & mask)) {
+                        keys[gap] = keys[next];
+                        values[gap] = values[next];
+                        gap = next;
+                    }
+
+                    next = (next + 1) & mask;
+                }
+
+                stamps[gap] = 0;
+                size--;
+
+                return previous;
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return MISSING;
+    }
+
+    /**
+     * Removes all keys without touching the table
+    */
+    public void clear() {
+        size = 0;
+        generation++;
+
+        // Stamps would be reused after the generation wraps around
+        if (generation == 0) {
+            Arrays.fill(stamps, 0);
+            generation = 1;
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        stamps = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        int[] oldStamps = stamps;
+        int oldGeneration = generation;
+        allocate(oldKeys.length * 2);
+        generation = 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldStamps[i] == oldGeneration) {
+                int slot = Hashing.mix(oldKeys[i]) & mask;
+
+                while (stamps[slot] == generation)
+                    slot = (slot + 1) & mask;
+
+                stamps[slot] = generation;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.util;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of long values stored in a treap. Nodes live in parallel arrays and are referenced by their position,
+ * so there is no object per value. Searches return nodes, whose value is read with key(node).
+*/
+public class LongTreeSet {
+    // Reference to no node
+    public static final int NIL = -1;
+
+    private long[] keys;
+    private int[] priorities;
+    private int[] left;
+    private int[] right;
+    private int root = NIL;
+    private int size;
+
+    // Removed nodes are reused, linked through their left child
+    private int free = NIL;
+    private int used;
+
+    // State of the random priorities
+    private int seed = 0x2545F491;
+
+    public LongTreeSet(int capacity) {
+        capacity = Math.max(4, capacity);
+        keys = new long[capacity];
+        priorities = new int[capacity];
+        left = new int[capacity];
+        right = new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long key(int node) {
+        return keys[node];
+    }
+
+    public boolean contains(long key) {
+        int t = root;
+
+        while (t != NIL) {
+            if (key == keys[t])
+                return true;
+
+            t = key < keys[t] ? left[t] : right[t];
+        }
+
+        return false;
+    }
+
+    /**
+     * Adds a value. Returns false if it was already in the set.
+    */
+    public boolean add(long key) {
+        if (contains(key))
+            return false;
+
+        int node = allocate(key);
+        root = insert(root, node);
+        size++;
+
+        return true;
+    }
+
+    /**
+     * Removes a value. Returns false if it was not in the set.
+    */
+    public boolean remove(long key) {
+        int before = size;
+        root = remove(root, key);
+
+        return size < before;
+    }
+
+    public void clear() {
+        root = NIL;
+        free = NIL;
+        used = 0;
+        size = 0;
+    }
+
+    /**
+     * Node with the smallest value, or NIL if the set is empty
+    */
+    public int first() {
+        int t = root;
+
+        while (t != NIL && left[t] != NIL)
+            t = left[t];
+
+        return t;
+    }
+
+    /**
+     * Node with the smallest value greater than or equal to the given one, or NIL
+    */
+    public int ceiling(long key) {
+        int t = root;
+        int result = NIL;
+
+        while (t != NIL) {
+            if (keys[t] >= key) {
+                result = t;
+                t = left[t];
+            } else {
+                t = right[t];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Node with the smallest value strictly greater than the given one, or NIL
+    */
+    public int higher(long key) {
+        int t = root;
+        int result = NIL;
+
+        while (t != NIL) {
+            if (keys[t] > key) {
+                result = t;
+                t = left[t];
+            } else {
+                t = right[t];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Node with the largest value less than or equal to the given one, or NIL
+    */
+    public int floor(long key) {
+        int t = root;
+        int result = NIL;
+
+        while (t != NIL) {
+            if (keys[t] <= key) {
+                result = t;
+                t = right[t];
+            } else {
+                t = left[t];
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Node with the largest value strictly less than the given one, or NIL
+    */
+    public int lower(long key) {
+        int t = root;
+        int result = NIL;
+
+        while (t != NIL) {
+            if (keys[t] < key) {
+                result = t;
+                t = right[t];
+            } else {
+                t = left[t];
+            }
+        }
+
+        return result;
+    }
+
+    private int allocate(long key) {
+        int node;
+
+        if (free != NIL) {
+            node = free;
+            free = left[node];
+        } else {
+            if (used == keys.length) {
+                int capacity = used + (used >> 1);
+                keys = Arrays.copyOf(keys, capacity);
+                priorities = Arrays.copyOf(priorities, capacity);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+            }
+
+            node = used++;
+        }
+
+        // Xorshift random priorities
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        keys[node] = key;
+        priorities[node] = seed;
+        left[node] = NIL;
+        right[node] = NIL;
+
+        return node;
+    }
+
+    /**
+     * Inserts a node into a subtree and rotates it up while its priority is higher than its parent's
+    */
+    private int insert(int t, int node) {
+        if (t == NIL)
+            return node;
+
+        if (keys[node] < keys[t]) {
+            left[t] = insert(left[t], node);
+
+            if (priorities[left[t]] > priorities[t]) {
+                int child = left[t];
+                left[t] = right[child];
+                right[child] = t;
+                t = child;
+            }
+        } else {
+            right[t] = insert(right[t], node);
+
+            if (priorities[right[t]] > priorities[t]) {
+                int child = right[t];
+                right[t] = left[child];
+                left[child] = t;
+                t = child;
+            }
+        }
+
+        return t;
+    }
+
+    private int remove(int t, long key) {
+        if (t == NIL)
+            return NIL;
+
+        if (key < keys[t]) {
+            left[t] = remove(left[t], key);
+        } else if (key > keys[t]) {
+            right[t] = remove(right[t], key);
+        } else {
+            int merged = merge(left[t], right[t]);
+            left[t] = free;
+            free = t;
+            size--;
+
+            return merged;
+        }
+
+        return t;
+    }
+
+    /**
+     * Joins two subtrees where every value of the first one is smaller
+    */
+    private int merge(int a, int b) {
+        if (a == NIL)
+            return b;
+
+        if (b == NIL)
+            return a;
+
+        if (priorities[a] > priorities[b]) {
+            right[a] = merge(right[a], b);
+
+            return a;
+        }
+
+        left[b] = merge(a, left[b]);
+
+        return b;
+    }
+}
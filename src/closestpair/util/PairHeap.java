@@ -0,0 +1,137 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package closestpair.util;
+
+/**
+ * Bounded binary max heap of pairs of ints by a long distance. It keeps the k pairs with the smallest distances seen so far.
+*/
+public class PairHeap {
+    private final int[] firsts;
+    private final int[] seconds;
+    private final long[] distances;
+    private final int capacity;
+    private int size;
+
+    public PairHeap(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("The capacity must be positive");
+
+        this.capacity = capacity;
+        this.firsts = new int[capacity];
+        this.seconds = new int[capacity];
+        this.distances = new long[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isFull() {
+        return size == capacity;
+    }
+
+    /**
+     * Largest distance that can still enter the heap: the largest distance in it if it is full, otherwise no bound
+    */
+    public long bound() {
+        return size == capacity ? distances[0] : Long.MAX_VALUE;
+    }
+
+    /**
+     * Adds a pair if the heap is not full or if it is closer than the farthest pair, which is then dropped
+    */
+    public void offer(int first, int second, long distance) {
+        if (size < capacity) {
+            // Moves the pair up from the end
+            int position = size++;
+
+            while (position > 0) {
+                int parent = (position - 1) >>> 1;
+
+                if (distances[parent] >= distance)
+                    break;
+
+                move(parent, position);
+                position = parent;
+            }
+
+            set(position, first, second, distance);
+        } else if (distance < distances[0]) {
+            // Replaces the farthest pair and moves the new one down
+            int position = 0;
+
+            while (true) {
+                int child = 2 * position + 1;
+
+                if (child >= size)
+                    break;
+
+                if (child + 1 < size && distances[child + 1] > distances[child])
+                    child++;
+
+                if (distances[child] <= distance)
+                    break;
+
+                move(child, position);
+                position = child;
+            }
+
+            set(position, first, second, distance);
+        }
+    }
+
+    /**
+     * Removes all pairs and writes them to the arrays sorted by distance, closest first. Returns the number of pairs.
+    */
+    public int drain(int[] outFirsts, int[] outSeconds, long[] outDistances) {
+        int count = size;
+
+        while (size > 0) {
+            int last = --size;
+            outFirsts[last] = firsts[0];
+            outSeconds[last] = seconds[0];
+            outDistances[last] = distances[0];
+
+            // Moves the last pair of the heap down from the top
+            int first = firsts[last];
+            int second = seconds[last];
+            long distance = distances[last];
+            int position = 0;
+
+            while (true) {
+                int child = 2 * position + 1;
+
+                if (child >= size)
+                    break;
+
+                if (child + 1 < size && distances[child + 1] > distances[child])
+                    child++;
+
+                if (distances[child] <= distance)
+                    break;
+
+                move(child, position);
+                position = child;
+            }
+
+            if (size > 0)
+                set(position, first, second, distance);
+        }
+
+        return count;
+    }
+
+    private void move(int from, int to) {
+        firsts[to] = firsts[from];
+        seconds[to] = seconds[from];
+        distances[to] = distances[from];
+    }
+
+    private void set(int position, int first, int second, long distance) {
+        firsts[position] = first;
+        seconds[position] = second;
+        distances[position] = distance;
+    }
+}